@@ -3,9 +3,11 @@ package com.animalhealthcare;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = "com.animalhealthcare")
 @EnableJpaRepositories(basePackages = "com.animalhealthcare.repository")
+@EnableScheduling
 public class AnimalHealthcareApplication {
 
     public static void main(String[] args) {
@@ -2,9 +2,12 @@ package com.animalhealthcare.config;
 
 import com.animalhealthcare.security.AuthTokenFilter;
 import com.animalhealthcare.security.UserDetailsServiceImpl;
+import com.animalhealthcare.service.IdempotencyStore;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -59,10 +62,14 @@ public class WebSecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> {
+                // Async dispatches (SSE, streamed bodies) were already authorized on the original request
+                auth.dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll();
                 auth.requestMatchers("/auth/**").permitAll();
                 auth.requestMatchers("/emergency/submit").permitAll();
                 auth.requestMatchers("/emergency/public/**").permitAll();
                 auth.requestMatchers("/test/**").permitAll();
+                // The STOMP CONNECT frame carries the JWT and is checked by StompAuthChannelInterceptor
+                auth.requestMatchers("/ws/**").permitAll();
                 auth.requestMatchers("/users/admin/**").hasRole("ADMIN");
                 auth.requestMatchers("/users/volunteers/**").hasAnyRole("VOLUNTEER", "ADMIN");
                 auth.anyRequest().authenticated();
@@ -80,6 +87,7 @@ public class WebSecurityConfig {
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList(IdempotencyStore.REPLAYED_HEADER, HttpHeaders.ETAG));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -1,19 +1,34 @@
 package com.animalhealthcare.controller;
 
 import com.animalhealthcare.dto.ApiResponse;
-import com.animalhealthcare.entity.ChatMessage;
-import com.animalhealthcare.entity.ChatRoom;
+import com.animalhealthcare.dto.ChatInboxEntry;
+import com.animalhealthcare.dto.ChatMessageSummary;
+import com.animalhealthcare.dto.ChatRoomSummary;
+import com.animalhealthcare.dto.CursorPage;
+import com.animalhealthcare.exception.ChatBusyException;
 import com.animalhealthcare.security.UserPrincipal;
 import com.animalhealthcare.service.ChatService;
+import com.animalhealthcare.service.CollectionVersions;
+import com.animalhealthcare.service.ExportService;
+import com.animalhealthcare.service.IdempotencyStore;
+import com.animalhealthcare.service.StreamingResponses;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +41,18 @@ public class ChatController {
     @Autowired
     private ChatService chatService;
     
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+    
+    @Autowired
+    private CollectionVersions collectionVersions;
+    
+    @Autowired
+    private StreamingResponses streamingResponses;
+    
+    @Autowired
+    private ExportService exportService;
+    
     // Create or get chat room for emergency request
     @PostMapping("/room/emergency/{emergencyId}")
     @PreAuthorize("hasRole('USER') or hasRole('VOLUNTEER') or hasRole('ADMIN')")
@@ -33,7 +60,7 @@ public class ChatController {
                                           Authentication authentication) {
         try {
             UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-            ChatRoom chatRoom = chatService.createOrGetChatRoom(emergencyId, userPrincipal.getId());
+            ChatRoomSummary chatRoom = chatService.createOrGetChatRoom(emergencyId, userPrincipal.getId());
             
             return ResponseEntity.ok(ApiResponse.success("Chat room created/retrieved", chatRoom));
         } catch (Exception e) {
@@ -62,7 +89,7 @@ public class ChatController {
     public ResponseEntity<?> assignVolunteer(@PathVariable Long roomId, 
                                            @PathVariable Long volunteerId) {
         try {
-            ChatRoom chatRoom = chatService.assignVolunteer(roomId, volunteerId);
+            ChatRoomSummary chatRoom = chatService.assignVolunteer(roomId, volunteerId);
             return ResponseEntity.ok(ApiResponse.success("Volunteer assigned to chat", chatRoom));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -70,44 +97,77 @@ public class ChatController {
         }
     }
     
-    // Send message
+    // Send message; retries that repeat the Idempotency-Key header get the original response back
     @PostMapping("/room/{roomId}/message")
     @PreAuthorize("hasRole('USER') or hasRole('VOLUNTEER') or hasRole('ADMIN')")
     public ResponseEntity<?> sendMessage(@PathVariable Long roomId,
                                        @RequestBody Map<String, String> messageData,
+                                       @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
                                        Authentication authentication) {
-        try {
-            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-            String message = messageData.get("message");
-            
-            if (message == null || message.trim().isEmpty()) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        String fingerprint = idempotencyKey != null ? idempotencyStore.fingerprint(messageData) : null;
+        return idempotencyStore.execute("chat-message:" + userPrincipal.getId() + ":" + roomId, idempotencyKey,
+                fingerprint, () -> {
+            try {
+                String message = messageData.get("message");
+                
+                if (message == null || message.trim().isEmpty()) {
+                    return ResponseEntity.badRequest()
+                            .body(ApiResponse.error("Message cannot be empty"));
+                }
+                
+                ChatMessageSummary chatMessage = chatService.sendMessage(roomId, userPrincipal.getId(), message.trim());
+                return ResponseEntity.ok(ApiResponse.success("Message sent", chatMessage));
+            } catch (ChatBusyException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body(ApiResponse.error(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE.value()));
+            } catch (Exception e) {
                 return ResponseEntity.badRequest()
-                        .body(ApiResponse.error("Message cannot be empty"));
+                        .body(ApiResponse.error("Error sending message: " + e.getMessage()));
             }
-            
-            ChatMessage chatMessage = chatService.sendMessage(roomId, userPrincipal.getId(), message.trim());
-            return ResponseEntity.ok(ApiResponse.success("Message sent", chatMessage));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error("Error sending message: " + e.getMessage()));
-        }
+        });
     }
     
-    // Get messages for a chat room
+    // Get messages for a chat room. With before/after (or just limit) the history is paged by message
+    // id: before pages back from the newest message, after catches up from a known one.
     @GetMapping("/room/{roomId}/messages")
     @PreAuthorize("hasRole('USER') or hasRole('VOLUNTEER') or hasRole('ADMIN')")
     public ResponseEntity<?> getChatMessages(@PathVariable Long roomId,
+                                           @RequestParam(required = false) Long before,
+                                           @RequestParam(required = false) Long after,
+                                           @RequestParam(required = false) Integer limit,
                                            @RequestParam(defaultValue = "0") int page,
                                            @RequestParam(defaultValue = "50") int size) {
         try {
-            if (size <= 0) {
-                // If no pagination, get all messages
-                List<ChatMessage> messages = chatService.getChatMessages(roomId);
+            if (before != null && after != null) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Use either before or after, not both"));
+            }
+            if (after != null) {
+                CursorPage<ChatMessageSummary> messages = chatService.getChatMessagesAfter(roomId, after,
+                        limit != null ? limit : 0);
                 return ResponseEntity.ok(ApiResponse.success("Messages retrieved", messages));
+            }
+            if (before != null || limit != null) {
+                CursorPage<ChatMessageSummary> messages = chatService.getChatMessagesBefore(roomId, before,
+                        limit != null ? limit : 0);
+                return ResponseEntity.ok(ApiResponse.success("Messages retrieved", messages));
+            }
+            
+            if (size <= 0) {
+                // If no pagination, stream the whole transcript
+                chatService.checkChatRoomExists(roomId);
+                if (streamingResponses.isBusy()) {
+                    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                            .body(ApiResponse.error("Too many streamed responses running, try again later", HttpStatus.TOO_MANY_REQUESTS.value()));
+                }
+                StreamingResponseBody body = streamingResponses.json("Messages retrieved",
+                        () -> chatService.streamChatMessages(roomId));
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
             } else {
                 // Use pagination
                 Pageable pageable = PageRequest.of(page, size);
-                Page<ChatMessage> messages = chatService.getChatMessages(roomId, pageable);
+                Page<ChatMessageSummary> messages = chatService.getChatMessages(roomId, pageable);
                 return ResponseEntity.ok(ApiResponse.success("Messages retrieved", messages));
             }
         } catch (Exception e) {
@@ -116,17 +176,46 @@ public class ChatController {
         }
     }
     
-    // Mark messages as read
+    // Export a room's transcript as NDJSON or CSV, gzipped when accepted (Admin only)
+    @GetMapping("/room/{roomId}/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportTranscript(@PathVariable Long roomId,
+                                              @RequestParam(defaultValue = "ndjson") String format,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        try {
+            ExportService.Format exportFormat = ExportService.Format.parse(format);
+            if (from != null && to != null && from.isAfter(to)) {
+                return ResponseEntity.badRequest().body(ApiResponse.error("from must not be after to"));
+            }
+            chatService.checkChatRoomExists(roomId);
+            if (exportService.isBusy()) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .body(ApiResponse.error("Too many exports running, try again later", HttpStatus.TOO_MANY_REQUESTS.value()));
+            }
+            
+            return exportService.exportChatTranscript(roomId, exportFormat, from, to, acceptEncoding);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Error exporting transcript: " + e.getMessage()));
+        }
+    }
+    
+    // Mark messages as read, up to upTo when given
     @PutMapping("/room/{roomId}/read")
     @PreAuthorize("hasRole('USER') or hasRole('VOLUNTEER') or hasRole('ADMIN')")
     public ResponseEntity<?> markMessagesAsRead(@PathVariable Long roomId,
+                                              @RequestParam(required = false) Long upTo,
                                               Authentication authentication) {
         try {
             UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-            int markedCount = chatService.markMessagesAsRead(roomId, userPrincipal.getId());
+            Long lastReadMessageId = chatService.markMessagesAsRead(roomId, userPrincipal.getId(), upTo);
             
             Map<String, Object> result = new HashMap<>();
-            result.put("markedCount", markedCount);
+            result.put("lastReadMessageId", lastReadMessageId);
             
             return ResponseEntity.ok(ApiResponse.success("Messages marked as read", result));
         } catch (Exception e) {
@@ -157,24 +246,48 @@ public class ChatController {
     // Get user's chat rooms
     @GetMapping("/rooms")
     @PreAuthorize("hasRole('USER') or hasRole('VOLUNTEER') or hasRole('ADMIN')")
-    public ResponseEntity<?> getUserChatRooms(Authentication authentication) {
+    public ResponseEntity<?> getUserChatRooms(Authentication authentication, WebRequest webRequest) {
         try {
             UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-            List<ChatRoom> chatRooms = chatService.getUserChatRooms(userPrincipal.getId());
+            // Room summaries carry participant names, so user changes invalidate the tag as well
+            String etag = collectionVersions.etag("rooms." + userPrincipal.getId(),
+                    CollectionVersions.Collection.CHAT_ROOMS, CollectionVersions.Collection.USERS);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            
+            List<ChatRoomSummary> chatRooms = chatService.getUserChatRooms(userPrincipal.getId());
             
-            return ResponseEntity.ok(ApiResponse.success("Chat rooms retrieved", chatRooms));
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(etag)
+                    .body(ApiResponse.success("Chat rooms retrieved", chatRooms));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Error retrieving chat rooms: " + e.getMessage()));
         }
     }
     
+    // The caller's rooms with their newest message and unread count, in one response
+    @GetMapping("/inbox")
+    @PreAuthorize("hasRole('USER') or hasRole('VOLUNTEER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getInbox(Authentication authentication) {
+        try {
+            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+            List<ChatInboxEntry> inbox = chatService.getInbox(userPrincipal.getId());
+            return ResponseEntity.ok(ApiResponse.success("Inbox retrieved", inbox));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Error retrieving inbox: " + e.getMessage()));
+        }
+    }
+    
     // Get active chat rooms (for admin/volunteer dashboard)
     @GetMapping("/rooms/active")
     @PreAuthorize("hasRole('VOLUNTEER') or hasRole('ADMIN')")
     public ResponseEntity<?> getActiveChatRooms() {
         try {
-            List<ChatRoom> activeChatRooms = chatService.getActiveChatRooms();
+            List<ChatRoomSummary> activeChatRooms = chatService.getActiveChatRooms();
             return ResponseEntity.ok(ApiResponse.success("Active chat rooms retrieved", activeChatRooms));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -187,7 +300,7 @@ public class ChatController {
     @PreAuthorize("hasRole('VOLUNTEER') or hasRole('ADMIN')")
     public ResponseEntity<?> closeChatRoom(@PathVariable Long roomId) {
         try {
-            ChatRoom chatRoom = chatService.closeChatRoom(roomId);
+            ChatRoomSummary chatRoom = chatService.closeChatRoom(roomId);
             return ResponseEntity.ok(ApiResponse.success("Chat room closed", chatRoom));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -1,19 +1,46 @@
 package com.animalhealthcare.controller;
 
 import com.animalhealthcare.dto.ApiResponse;
+import com.animalhealthcare.dto.BatchRowResult;
+import com.animalhealthcare.dto.CursorPage;
 import com.animalhealthcare.dto.EmergencyRequestDto;
+import com.animalhealthcare.dto.EmergencyRequestSummary;
+import com.animalhealthcare.dto.IncidentAnalytics;
+import com.animalhealthcare.dto.NearbyEmergencyRequest;
+import com.animalhealthcare.dto.VolunteerCandidate;
 import com.animalhealthcare.entity.EmergencyRequest;
 import com.animalhealthcare.entity.Status;
 import com.animalhealthcare.entity.Urgency;
+import com.animalhealthcare.exception.RequestAlreadyClaimedException;
 import com.animalhealthcare.security.UserPrincipal;
+import com.animalhealthcare.service.CollectionVersions;
 import com.animalhealthcare.service.EmergencyRequestService;
+import com.animalhealthcare.service.ExportService;
+import com.animalhealthcare.service.IdempotencyStore;
+import com.animalhealthcare.service.IncidentRollups;
+import com.animalhealthcare.service.StreamingResponses;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,35 +50,121 @@ import java.util.Map;
 @RequestMapping("/emergency")
 public class EmergencyController {
     
+    private static final int MAX_PENDING_LIMIT = 500;
+    private static final double MAX_NEARBY_RADIUS_KM = 100.0;
+    private static final int MAX_NEARBY_LIMIT = 200;
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final int MAX_CANDIDATES = 50;
+    
     @Autowired
     private EmergencyRequestService emergencyRequestService;
     
+    @Autowired
+    private CollectionVersions collectionVersions;
+    
+    @Autowired
+    private StreamingResponses streamingResponses;
+    
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+    
     // Public endpoint for submitting emergency requests (no authentication required)
+    // Retries that repeat the Idempotency-Key header get the original response back
     @PostMapping("/submit")
     public ResponseEntity<?> submitEmergencyRequest(@Valid @RequestBody EmergencyRequestDto requestDto,
-                                                   Authentication authentication) {
-        try {
-            Long userId = null;
-            if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal) {
-                UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-                userId = userPrincipal.getId();
+                                                   @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+                                                   Authentication authentication,
+                                                   HttpServletRequest request) {
+        Long userId = null;
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal) {
+            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+            userId = userPrincipal.getId();
+        }
+        
+        Long submitterId = userId;
+        // Anonymous reporters share no account, so their keys are scoped by client address; the
+        // payload fingerprint makes a reused key with different contact details fail instead of
+        // returning another reporter's stored response
+        String scope = "emergency-submit:" + (submitterId != null ? submitterId
+                : "anonymous:" + idempotencyStore.fingerprint(request.getRemoteAddr()));
+        String fingerprint = idempotencyKey != null ? idempotencyStore.fingerprint(requestDto) : null;
+        return idempotencyStore.execute(scope, idempotencyKey, fingerprint, () -> {
+            try {
+                EmergencyRequest savedRequest = emergencyRequestService.createEmergencyRequest(requestDto, submitterId);
+                return ResponseEntity.ok(ApiResponse.success("Emergency request submitted successfully", savedRequest));
+                
+            } catch (Exception e) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Error submitting emergency request: " + e.getMessage()));
             }
-            
-            EmergencyRequest savedRequest = emergencyRequestService.createEmergencyRequest(requestDto, userId);
-            return ResponseEntity.ok(ApiResponse.success("Emergency request submitted successfully", savedRequest));
-            
+        });
+    }
+    
+    // Bulk submission from hotline partners and field coordinators as a JSON array (Admin/Volunteer only)
+    @PostMapping(value = "/submit/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('VOLUNTEER')")
+    public ResponseEntity<?> submitBatch(@RequestBody List<EmergencyRequestDto> rows,
+                                         Authentication authentication) {
+        try {
+            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+            List<BatchRowResult> results = emergencyRequestService.createEmergencyRequests(rows, userPrincipal.getId());
+            return ResponseEntity.ok(ApiResponse.success("Batch processed", batchSummary(results)));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
-                    .body(ApiResponse.error("Error submitting emergency request: " + e.getMessage()));
+                    .body(ApiResponse.error("Error processing batch: " + e.getMessage()));
         }
     }
     
-    // Get all emergency requests (Admin/Volunteer only)
+    // Bulk submission as CSV with a header row, read as a stream (Admin/Volunteer only). The body is
+    // always decoded as UTF-8, whatever charset the container would default to; invalid bytes fail the batch.
+    @PostMapping(value = "/submit/batch", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('VOLUNTEER')")
+    public ResponseEntity<?> submitBatchCsv(HttpServletRequest request, Authentication authentication) {
+        try {
+            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+            Reader body = new BufferedReader(new InputStreamReader(request.getInputStream(),
+                    StandardCharsets.UTF_8.newDecoder()));
+            List<BatchRowResult> results = emergencyRequestService.createEmergencyRequestsFromCsv(
+                    body, userPrincipal.getId());
+            return ResponseEntity.ok(ApiResponse.success("Batch processed", batchSummary(results)));
+        } catch (CharacterCodingException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Error processing batch: CSV must be UTF-8 encoded"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Error processing batch: " + e.getMessage()));
+        }
+    }
+    
+    private Map<String, Object> batchSummary(List<BatchRowResult> results) {
+        long accepted = results.stream().filter(BatchRowResult::isSuccess).count();
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("accepted", accepted);
+        summary.put("rejected", results.size() - accepted);
+        summary.put("results", results);
+        return summary;
+    }
+    
+    // Get all emergency requests (Admin/Volunteer only); limit <= 0 streams every request in one response
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN') or hasRole('VOLUNTEER')")
-    public ResponseEntity<?> getAllRequests() {
+    public ResponseEntity<?> getAllRequests(@RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "50") int limit) {
         try {
-            List<EmergencyRequest> requests = emergencyRequestService.findAllRequests();
+            if (limit <= 0) {
+                if (streamingResponses.isBusy()) {
+                    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                            .body(ApiResponse.error("Too many streamed responses running, try again later", HttpStatus.TOO_MANY_REQUESTS.value()));
+                }
+                StreamingResponseBody body = streamingResponses.json("Emergency requests retrieved",
+                        emergencyRequestService::streamAllRequests);
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+            }
+            
+            CursorPage<EmergencyRequestSummary> requests = emergencyRequestService.findAllRequests(cursor, limit);
             return ResponseEntity.ok(ApiResponse.success("Emergency requests retrieved", requests));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -62,16 +175,60 @@ public class EmergencyController {
     // Get pending requests ordered by priority (Admin/Volunteer only)
     @GetMapping("/pending")
     @PreAuthorize("hasRole('ADMIN') or hasRole('VOLUNTEER')")
-    public ResponseEntity<?> getPendingRequests() {
+    public ResponseEntity<?> getPendingRequests(@RequestParam(defaultValue = "100") int limit,
+                                                WebRequest webRequest) {
         try {
-            List<EmergencyRequest> requests = emergencyRequestService.findPendingRequestsByPriority();
-            return ResponseEntity.ok(ApiResponse.success("Pending requests retrieved", requests));
+            int pageSize = Math.min(limit, MAX_PENDING_LIMIT);
+            // Dashboards poll this; an unchanged queue is answered with 304 before anything is read
+            String etag = collectionVersions.etag("pending." + pageSize, CollectionVersions.Collection.EMERGENCY_REQUESTS);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            
+            List<EmergencyRequestSummary> requests = emergencyRequestService.findPendingRequestsByPriority(pageSize);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(etag)
+                    .body(ApiResponse.success("Pending requests retrieved", requests));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Error retrieving pending requests: " + e.getMessage()));
         }
     }
     
+    // Get open requests near a point, nearest first (Admin/Volunteer only)
+    @GetMapping("/nearby")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('VOLUNTEER')")
+    public ResponseEntity<?> getNearbyRequests(@RequestParam double lat,
+                                               @RequestParam double lng,
+                                               @RequestParam(defaultValue = "10") double radiusKm,
+                                               @RequestParam(defaultValue = "50") int limit) {
+        try {
+            if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Latitude must be between -90 and 90 and longitude between -180 and 180"));
+            }
+            if (radiusKm <= 0 || radiusKm > MAX_NEARBY_RADIUS_KM) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("radiusKm must be greater than 0 and at most " + MAX_NEARBY_RADIUS_KM));
+            }
+            
+            List<NearbyEmergencyRequest> requests = emergencyRequestService.findNearbyRequests(
+                    lat, lng, radiusKm, Math.max(1, Math.min(limit, MAX_NEARBY_LIMIT)));
+            return ResponseEntity.ok(ApiResponse.success("Nearby requests retrieved", requests));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Error retrieving nearby requests: " + e.getMessage()));
+        }
+    }
+    
+    // Live feed of request changes; send Last-Event-ID to resume after a reconnect (Admin/Volunteer only)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('VOLUNTEER')")
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return emergencyRequestService.subscribeToEvents(lastEventId);
+    }
+    
     // Get emergency request by ID
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('VOLUNTEER')")
@@ -86,13 +243,44 @@ public class EmergencyController {
         }
     }
     
+    // Volunteers best placed to take this request: nearest first, penalised for active assignments (Admin only)
+    @GetMapping("/{id}/candidates")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getCandidates(@PathVariable String id,
+                                           @RequestParam(defaultValue = "5") int k) {
+        try {
+            List<VolunteerCandidate> candidates = emergencyRequestService.findCandidates(
+                    id, Math.max(1, Math.min(k, MAX_CANDIDATES)));
+            return ResponseEntity.ok(ApiResponse.success("Volunteer candidates retrieved", candidates));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Error retrieving candidates: " + e.getMessage()));
+        }
+    }
+    
+    // Reports linked to this incident as near-duplicates (Admin/Volunteer only)
+    @GetMapping("/{id}/duplicates")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('VOLUNTEER')")
+    public ResponseEntity<?> getDuplicates(@PathVariable String id) {
+        try {
+            List<EmergencyRequestSummary> duplicates = emergencyRequestService.findDuplicates(id);
+            return ResponseEntity.ok(ApiResponse.success("Duplicate reports retrieved", duplicates));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Error retrieving duplicate reports: " + e.getMessage()));
+        }
+    }
+    
     // Get user's own emergency requests
     @GetMapping("/my-requests")
     @PreAuthorize("hasRole('USER') or hasRole('VOLUNTEER') or hasRole('ADMIN')")
-    public ResponseEntity<?> getMyRequests(Authentication authentication) {
+    public ResponseEntity<?> getMyRequests(@RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "50") int limit,
+                                           Authentication authentication) {
         try {
             UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-            List<EmergencyRequest> requests = emergencyRequestService.findRequestsByUserId(userPrincipal.getId());
+            CursorPage<EmergencyRequestSummary> requests = emergencyRequestService.findRequestsByUserId(
+                    userPrincipal.getId(), cursor, limit);
             return ResponseEntity.ok(ApiResponse.success("Your requests retrieved", requests));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -107,6 +295,9 @@ public class EmergencyController {
         try {
             EmergencyRequest updatedRequest = emergencyRequestService.assignVolunteer(id, volunteerId);
             return ResponseEntity.ok(ApiResponse.success("Volunteer assigned successfully", updatedRequest));
+        } catch (RequestAlreadyClaimedException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage(), HttpStatus.CONFLICT.value()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Error assigning volunteer: " + e.getMessage()));
@@ -130,10 +321,13 @@ public class EmergencyController {
     // Get requests by status (Admin/Volunteer only)
     @GetMapping("/status/{status}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('VOLUNTEER')")
-    public ResponseEntity<?> getRequestsByStatus(@PathVariable String status) {
+    public ResponseEntity<?> getRequestsByStatus(@PathVariable String status,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "50") int limit) {
         try {
             Status requestStatus = Status.valueOf(status.toUpperCase());
-            List<EmergencyRequest> requests = emergencyRequestService.findRequestsByStatus(requestStatus);
+            CursorPage<EmergencyRequestSummary> requests = emergencyRequestService.findRequestsByStatus(
+                    requestStatus, cursor, limit);
             return ResponseEntity.ok(ApiResponse.success("Requests by status retrieved", requests));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -144,10 +338,13 @@ public class EmergencyController {
     // Get requests by urgency (Admin/Volunteer only)
     @GetMapping("/urgency/{urgency}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('VOLUNTEER')")
-    public ResponseEntity<?> getRequestsByUrgency(@PathVariable String urgency) {
+    public ResponseEntity<?> getRequestsByUrgency(@PathVariable String urgency,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "50") int limit) {
         try {
             Urgency requestUrgency = Urgency.valueOf(urgency.toUpperCase());
-            List<EmergencyRequest> requests = emergencyRequestService.findRequestsByUrgency(requestUrgency);
+            CursorPage<EmergencyRequestSummary> requests = emergencyRequestService.findRequestsByUrgency(
+                    requestUrgency, cursor, limit);
             return ResponseEntity.ok(ApiResponse.success("Requests by urgency retrieved", requests));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -158,9 +355,11 @@ public class EmergencyController {
     // Get recent requests (Admin/Volunteer only)
     @GetMapping("/recent")
     @PreAuthorize("hasRole('ADMIN') or hasRole('VOLUNTEER')")
-    public ResponseEntity<?> getRecentRequests(@RequestParam(defaultValue = "24") int hours) {
+    public ResponseEntity<?> getRecentRequests(@RequestParam(defaultValue = "24") int hours,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "50") int limit) {
         try {
-            List<EmergencyRequest> requests = emergencyRequestService.findRecentRequests(hours);
+            CursorPage<EmergencyRequestSummary> requests = emergencyRequestService.findRecentRequests(hours, cursor, limit);
             return ResponseEntity.ok(ApiResponse.success("Recent requests retrieved", requests));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -176,7 +375,7 @@ public class EmergencyController {
             Map<String, Object> stats = new HashMap<>();
             stats.put("pendingRequests", emergencyRequestService.getPendingRequestsCount());
             stats.put("completedRequests", emergencyRequestService.getCompletedRequestsCount());
-            stats.put("totalRequests", emergencyRequestService.findAllRequests().size());
+            stats.put("totalRequests", emergencyRequestService.getTotalRequestsCount());
             
             return ResponseEntity.ok(ApiResponse.success("Dashboard statistics retrieved", stats));
         } catch (Exception e) {
@@ -185,12 +384,91 @@ public class EmergencyController {
         }
     }
     
+    // Bulk export as NDJSON or CSV, filtered by creation time and status, gzipped when accepted (Admin only)
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportRequests(@RequestParam(defaultValue = "ndjson") String format,
+                                            @RequestParam(required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                            @RequestParam(required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                            @RequestParam(required = false) String status,
+                                            @RequestParam(defaultValue = "true") boolean includeArchived,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        try {
+            ExportService.Format exportFormat = ExportService.Format.parse(format);
+            Status requestStatus = status != null ? Status.valueOf(status.toUpperCase()) : null;
+            if (from != null && to != null && from.isAfter(to)) {
+                return ResponseEntity.badRequest().body(ApiResponse.error("from must not be after to"));
+            }
+            if (exportService.isBusy()) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .body(ApiResponse.error("Too many exports running, try again later", HttpStatus.TOO_MANY_REQUESTS.value()));
+            }
+            
+            return exportService.exportEmergencyRequests(exportFormat, from, to, requestStatus, includeArchived,
+                    acceptEncoding);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Invalid status: " + status));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Error exporting requests: " + e.getMessage()));
+        }
+    }
+    
+    // Incident counts by urgency, status and animal type over a time range (Admin only)
+    @GetMapping("/analytics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getAnalytics(@RequestParam(defaultValue = "hour") String granularity,
+                                          @RequestParam(required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                          @RequestParam(required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            IncidentRollups.Granularity bucket = IncidentRollups.Granularity.valueOf(granularity.toUpperCase());
+            LocalDateTime end = to != null ? to : LocalDateTime.now();
+            LocalDateTime start = from != null ? from
+                    : bucket == IncidentRollups.Granularity.HOUR ? end.minusHours(23) : end.minusDays(29);
+            if (start.isAfter(end)) {
+                return ResponseEntity.badRequest().body(ApiResponse.error("from must not be after to"));
+            }
+            
+            IncidentAnalytics analytics = emergencyRequestService.getIncidentAnalytics(bucket, start, end);
+            return ResponseEntity.ok(ApiResponse.success("Incident analytics retrieved", analytics));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Invalid granularity: " + granularity + " (use hour or day)"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Error retrieving analytics: " + e.getMessage()));
+        }
+    }
+    
+    // Ranked free-text search over location, animal type and description (Admin/Volunteer only)
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('VOLUNTEER')")
+    public ResponseEntity<?> search(@RequestParam String q,
+                                    @RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<EmergencyRequestSummary> requests = emergencyRequestService.searchRequests(
+                    q, Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)));
+            return ResponseEntity.ok(ApiResponse.success("Search results retrieved", requests));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Error searching requests: " + e.getMessage()));
+        }
+    }
+    
     // Search requests by location (Admin/Volunteer only)
     @GetMapping("/search/location")
     @PreAuthorize("hasRole('ADMIN') or hasRole('VOLUNTEER')")
-    public ResponseEntity<?> searchByLocation(@RequestParam String location) {
+    public ResponseEntity<?> searchByLocation(@RequestParam String location,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "50") int limit) {
         try {
-            List<EmergencyRequest> requests = emergencyRequestService.findRequestsByLocation(location);
+            CursorPage<EmergencyRequestSummary> requests = emergencyRequestService.findRequestsByLocation(
+                    location, cursor, limit);
             return ResponseEntity.ok(ApiResponse.success("Requests by location retrieved", requests));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -201,9 +479,12 @@ public class EmergencyController {
     // Search requests by animal type (Admin/Volunteer only)
     @GetMapping("/search/animal")
     @PreAuthorize("hasRole('ADMIN') or hasRole('VOLUNTEER')")
-    public ResponseEntity<?> searchByAnimalType(@RequestParam String animalType) {
+    public ResponseEntity<?> searchByAnimalType(@RequestParam String animalType,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "50") int limit) {
         try {
-            List<EmergencyRequest> requests = emergencyRequestService.findRequestsByAnimalType(animalType);
+            CursorPage<EmergencyRequestSummary> requests = emergencyRequestService.findRequestsByAnimalType(
+                    animalType, cursor, limit);
             return ResponseEntity.ok(ApiResponse.success("Requests by animal type retrieved", requests));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -232,10 +513,10 @@ public class EmergencyController {
     public ResponseEntity<?> getCompletionStats() {
         try {
             Map<String, Object> stats = new HashMap<>();
-            stats.put("totalRequests", emergencyRequestService.findAllRequests().size());
+            stats.put("totalRequests", emergencyRequestService.getTotalRequestsCount());
             stats.put("completedRequests", emergencyRequestService.getCompletedRequestsCount());
             stats.put("pendingRequests", emergencyRequestService.getPendingRequestsCount());
-            stats.put("inProgressRequests", emergencyRequestService.findRequestsByStatus(Status.IN_PROGRESS).size());
+            stats.put("inProgressRequests", emergencyRequestService.getInProgressRequestsCount());
             
             return ResponseEntity.ok(ApiResponse.success("Completion statistics retrieved", stats));
         } catch (Exception e) {
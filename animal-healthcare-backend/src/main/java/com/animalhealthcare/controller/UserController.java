@@ -1,15 +1,25 @@
 package com.animalhealthcare.controller;
 
 import com.animalhealthcare.dto.ApiResponse;
+import com.animalhealthcare.dto.UserSummary;
+import com.animalhealthcare.dto.VolunteerLocationDto;
 import com.animalhealthcare.entity.Role;
 import com.animalhealthcare.entity.User;
 import com.animalhealthcare.security.UserPrincipal;
+import com.animalhealthcare.service.CollectionVersions;
+import com.animalhealthcare.service.StreamingResponses;
 import com.animalhealthcare.service.UserService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -21,6 +31,12 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private CollectionVersions collectionVersions;
+    
+    @Autowired
+    private StreamingResponses streamingResponses;
+    
     // Get current user profile
     @GetMapping("/profile")
     @PreAuthorize("hasRole('USER') or hasRole('VOLUNTEER') or hasRole('ADMIN')")
@@ -40,16 +56,17 @@ public class UserController {
         }
     }
     
-    // Get all users (Admin only)
+    // Get all users (Admin only), streamed so the list is never held in memory
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> getAllUsers() {
         try {
-            List<User> users = userService.findAllUsers();
-            // Remove passwords from response
-            users.forEach(user -> user.setPassword(null));
-            
-            return ResponseEntity.ok(ApiResponse.success("All users retrieved", users));
+            if (streamingResponses.isBusy()) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .body(ApiResponse.error("Too many streamed responses running, try again later", HttpStatus.TOO_MANY_REQUESTS.value()));
+            }
+            StreamingResponseBody body = streamingResponses.json("All users retrieved", userService::streamAllUsers);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Error retrieving users: " + e.getMessage()));
@@ -59,13 +76,19 @@ public class UserController {
     // Get all volunteers (Admin/Volunteer only)
     @GetMapping("/volunteers")
     @PreAuthorize("hasRole('ADMIN') or hasRole('VOLUNTEER')")
-    public ResponseEntity<?> getAllVolunteers() {
+    public ResponseEntity<?> getAllVolunteers(WebRequest webRequest) {
         try {
-            List<User> volunteers = userService.findVolunteers();
-            // Remove passwords from response
-            volunteers.forEach(user -> user.setPassword(null));
+            String etag = collectionVersions.etag("volunteers", CollectionVersions.Collection.USERS);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            
+            List<UserSummary> volunteers = userService.findVolunteers();
             
-            return ResponseEntity.ok(ApiResponse.success("Volunteers retrieved", volunteers));
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(etag)
+                    .body(ApiResponse.success("Volunteers retrieved", volunteers));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Error retrieving volunteers: " + e.getMessage()));
@@ -77,9 +100,7 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN') or hasRole('VOLUNTEER')")
     public ResponseEntity<?> searchVolunteers(@RequestParam String search) {
         try {
-            List<User> volunteers = userService.findVolunteersBySearch(search);
-            // Remove passwords from response
-            volunteers.forEach(user -> user.setPassword(null));
+            List<UserSummary> volunteers = userService.findVolunteersBySearch(search);
             
             return ResponseEntity.ok(ApiResponse.success("Volunteers search results", volunteers));
         } catch (Exception e) {
@@ -94,9 +115,7 @@ public class UserController {
     public ResponseEntity<?> getUsersByRole(@PathVariable String role) {
         try {
             Role userRole = Role.valueOf(role.toUpperCase());
-            List<User> users = userService.findUsersByRole(userRole);
-            // Remove passwords from response
-            users.forEach(user -> user.setPassword(null));
+            List<UserSummary> users = userService.findUsersByRole(userRole);
             
             return ResponseEntity.ok(ApiResponse.success("Users by role retrieved", users));
         } catch (Exception e) {
@@ -110,9 +129,7 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> searchUsers(@RequestParam String name) {
         try {
-            List<User> users = userService.findUsersByName(name);
-            // Remove passwords from response
-            users.forEach(user -> user.setPassword(null));
+            List<UserSummary> users = userService.findUsersByName(name);
             
             return ResponseEntity.ok(ApiResponse.success("User search results", users));
         } catch (Exception e) {
@@ -151,6 +168,21 @@ public class UserController {
         }
     }
     
+    // Report the volunteer's current position for request recommendations (Volunteer only)
+    @PutMapping("/volunteers/location")
+    @PreAuthorize("hasRole('VOLUNTEER')")
+    public ResponseEntity<?> updateLocation(@Valid @RequestBody VolunteerLocationDto location,
+                                            Authentication authentication) {
+        try {
+            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+            userService.updateVolunteerLocation(userPrincipal.getId(), location.getLatitude(), location.getLongitude());
+            return ResponseEntity.ok(ApiResponse.success("Location updated"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Error updating location: " + e.getMessage()));
+        }
+    }
+    
     // Get user by ID (Admin only)
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -1,5 +1,9 @@
 package com.animalhealthcare.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
 public class ApiResponse<T> {
     
     private boolean success;
@@ -7,6 +11,9 @@ public class ApiResponse<T> {
     private T data;
     private int status;
     
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+    
     // Constructors
     public ApiResponse() {}
     
@@ -37,6 +44,12 @@ public class ApiResponse<T> {
         return new ApiResponse<>(true, message, data);
     }
     
+    public static <T> ApiResponse<List<T>> success(String message, CursorPage<T> page) {
+        ApiResponse<List<T>> response = new ApiResponse<>(true, message, page.getItems());
+        response.setNextCursor(page.getNextCursor());
+        return response;
+    }
+    
     public static <T> ApiResponse<T> error(String message) {
         return new ApiResponse<>(false, message);
     }
@@ -57,4 +70,7 @@ public class ApiResponse<T> {
     
     public int getStatus() { return status; }
     public void setStatus(int status) { this.status = status; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
 }
@@ -0,0 +1,35 @@
+package com.animalhealthcare.dto;
+
+import java.util.List;
+
+// Outcome of one row of a bulk emergency submission (rows are numbered from 1)
+public class BatchRowResult {
+    
+    private final int row;
+    private final boolean success;
+    private final String id;
+    private final List<String> errors;
+    
+    private BatchRowResult(int row, boolean success, String id, List<String> errors) {
+        this.row = row;
+        this.success = success;
+        this.id = id;
+        this.errors = errors;
+    }
+    
+    public static BatchRowResult accepted(int row, String id) {
+        return new BatchRowResult(row, true, id, List.of());
+    }
+    
+    public static BatchRowResult rejected(int row, List<String> errors) {
+        return new BatchRowResult(row, false, null, errors);
+    }
+    
+    public int getRow() { return row; }
+    
+    public boolean isSuccess() { return success; }
+    
+    public String getId() { return id; }
+    
+    public List<String> getErrors() { return errors; }
+}
@@ -0,0 +1,22 @@
+package com.animalhealthcare.dto;
+
+// One row of a user's chat inbox: the room, its newest message (null before the first one) and how
+// many messages from others the user has not read yet
+public class ChatInboxEntry {
+    
+    private final ChatRoomSummary room;
+    private final ChatMessageSummary lastMessage;
+    private final long unreadCount;
+    
+    public ChatInboxEntry(ChatRoomSummary room, ChatMessageSummary lastMessage, long unreadCount) {
+        this.room = room;
+        this.lastMessage = lastMessage;
+        this.unreadCount = unreadCount;
+    }
+    
+    public ChatRoomSummary getRoom() { return room; }
+    
+    public ChatMessageSummary getLastMessage() { return lastMessage; }
+    
+    public long getUnreadCount() { return unreadCount; }
+}
@@ -0,0 +1,76 @@
+package com.animalhealthcare.dto;
+
+import com.animalhealthcare.entity.ChatMessage;
+import com.animalhealthcare.entity.MessageType;
+import com.animalhealthcare.entity.SenderType;
+import com.animalhealthcare.entity.User;
+
+import java.time.LocalDateTime;
+
+// A chat message with its room and sender flattened to ids and the sender's name
+public class ChatMessageSummary {
+    
+    private final Long id;
+    private final Long chatRoomId;
+    private final Long senderId;
+    private final String senderName;
+    private final SenderType senderType;
+    private final String message;
+    private final MessageType messageType;
+    private final String fileUrl;
+    private final String fileName;
+    private final Long fileSize;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime editedAt;
+    
+    // Argument order matches the JPQL constructor expressions in ChatMessageRepository
+    public ChatMessageSummary(Long id, Long chatRoomId, Long senderId, String senderName, SenderType senderType,
+                              String message, MessageType messageType, String fileUrl, String fileName, Long fileSize,
+                              LocalDateTime createdAt, LocalDateTime editedAt) {
+        this.id = id;
+        this.chatRoomId = chatRoomId;
+        this.senderId = senderId;
+        this.senderName = senderName;
+        this.senderType = senderType;
+        this.message = message;
+        this.messageType = messageType;
+        this.fileUrl = fileUrl;
+        this.fileName = fileName;
+        this.fileSize = fileSize;
+        this.createdAt = createdAt;
+        this.editedAt = editedAt;
+    }
+    
+    // Must be called inside the transaction that loaded the message
+    public static ChatMessageSummary of(ChatMessage chatMessage) {
+        User sender = chatMessage.getSender();
+        return new ChatMessageSummary(chatMessage.getId(), chatMessage.getChatRoom().getId(), sender.getId(),
+                sender.getFullName(), chatMessage.getSenderType(), chatMessage.getMessage(),
+                chatMessage.getMessageType(), chatMessage.getFileUrl(), chatMessage.getFileName(),
+                chatMessage.getFileSize(), chatMessage.getCreatedAt(), chatMessage.getEditedAt());
+    }
+    
+    public Long getId() { return id; }
+    
+    public Long getChatRoomId() { return chatRoomId; }
+    
+    public Long getSenderId() { return senderId; }
+    
+    public String getSenderName() { return senderName; }
+    
+    public SenderType getSenderType() { return senderType; }
+    
+    public String getMessage() { return message; }
+    
+    public MessageType getMessageType() { return messageType; }
+    
+    public String getFileUrl() { return fileUrl; }
+    
+    public String getFileName() { return fileName; }
+    
+    public Long getFileSize() { return fileSize; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    
+    public LocalDateTime getEditedAt() { return editedAt; }
+}
@@ -0,0 +1,63 @@
+package com.animalhealthcare.dto;
+
+import com.animalhealthcare.entity.ChatRoom;
+import com.animalhealthcare.entity.ChatStatus;
+import com.animalhealthcare.entity.User;
+
+import java.time.LocalDateTime;
+
+// A chat room with its participants flattened to id and name, so responses never touch lazy User proxies
+public class ChatRoomSummary {
+    
+    private final Long id;
+    private final String emergencyRequestId;
+    private final Long userId;
+    private final String userName;
+    private final Long volunteerId;
+    private final String volunteerName;
+    private final ChatStatus status;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    
+    // Argument order matches the JPQL constructor expressions in ChatRoomRepository
+    public ChatRoomSummary(Long id, String emergencyRequestId, Long userId, String userName, Long volunteerId,
+                           String volunteerName, ChatStatus status, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.emergencyRequestId = emergencyRequestId;
+        this.userId = userId;
+        this.userName = userName;
+        this.volunteerId = volunteerId;
+        this.volunteerName = volunteerName;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
+    // Must be called inside the transaction that loaded the room
+    public static ChatRoomSummary of(ChatRoom chatRoom) {
+        User user = chatRoom.getUser();
+        User volunteer = chatRoom.getVolunteer();
+        return new ChatRoomSummary(chatRoom.getId(), chatRoom.getEmergencyRequestId(),
+                user.getId(), user.getFullName(),
+                volunteer != null ? volunteer.getId() : null, volunteer != null ? volunteer.getFullName() : null,
+                chatRoom.getStatus(), chatRoom.getCreatedAt(), chatRoom.getUpdatedAt());
+    }
+    
+    public Long getId() { return id; }
+    
+    public String getEmergencyRequestId() { return emergencyRequestId; }
+    
+    public Long getUserId() { return userId; }
+    
+    public String getUserName() { return userName; }
+    
+    public Long getVolunteerId() { return volunteerId; }
+    
+    public String getVolunteerName() { return volunteerName; }
+    
+    public ChatStatus getStatus() { return status; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,19 @@
+package com.animalhealthcare.dto;
+
+import java.util.List;
+
+// One page of a keyset-paged listing; nextCursor is null on the last page
+public class CursorPage<T> {
+    
+    private final List<T> items;
+    private final String nextCursor;
+    
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<T> getItems() { return items; }
+    
+    public String getNextCursor() { return nextCursor; }
+}
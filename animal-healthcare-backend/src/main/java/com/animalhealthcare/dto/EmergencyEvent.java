@@ -0,0 +1,47 @@
+package com.animalhealthcare.dto;
+
+import com.animalhealthcare.entity.EmergencyRequest;
+import com.animalhealthcare.entity.Status;
+import com.animalhealthcare.entity.Urgency;
+
+import java.time.LocalDateTime;
+
+// Compact change notification pushed to dashboards over /emergency/stream
+public class EmergencyEvent {
+    
+    public enum Type {
+        CREATED, ASSIGNED, UPDATED, COMPLETED, DELETED, ESCALATED, REBROADCAST, RELEASED
+    }
+    
+    private final long id;
+    private final Type type;
+    private final String requestId;
+    private final Status status;
+    private final Urgency urgency;
+    private final Long volunteerId;
+    private final LocalDateTime timestamp;
+    
+    public EmergencyEvent(long id, Type type, EmergencyRequest request) {
+        this.id = id;
+        this.type = type;
+        this.requestId = request.getId();
+        this.status = request.getStatus();
+        this.urgency = request.getUrgency();
+        this.volunteerId = request.getVolunteerId();
+        this.timestamp = LocalDateTime.now();
+    }
+    
+    public long getId() { return id; }
+    
+    public Type getType() { return type; }
+    
+    public String getRequestId() { return requestId; }
+    
+    public Status getStatus() { return status; }
+    
+    public Urgency getUrgency() { return urgency; }
+    
+    public Long getVolunteerId() { return volunteerId; }
+    
+    public LocalDateTime getTimestamp() { return timestamp; }
+}
@@ -1,5 +1,7 @@
 package com.animalhealthcare.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 
 public class EmergencyRequestDto {
@@ -13,6 +15,14 @@ public class EmergencyRequestDto {
     @NotBlank(message = "Location is required")
     private String location;
     
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+    
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+    
     @NotBlank(message = "Contact name is required")
     private String contactName;
     
@@ -47,6 +57,12 @@ public class EmergencyRequestDto {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
     
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    
     public String getContactName() { return contactName; }
     public void setContactName(String contactName) { this.contactName = contactName; }
     
@@ -0,0 +1,99 @@
+package com.animalhealthcare.dto;
+
+import com.animalhealthcare.entity.EmergencyRequest;
+import com.animalhealthcare.entity.Status;
+import com.animalhealthcare.entity.Urgency;
+
+import java.time.LocalDateTime;
+
+// List-view projection of an emergency request. The description is cut to a preview and the
+// completion/volunteer contact details are left out; GET /emergency/{id} returns the full request.
+public class EmergencyRequestSummary {
+    
+    public static final int DESCRIPTION_PREVIEW_LENGTH = 280;
+    
+    private final String id;
+    private final Long userId;
+    private final String animalType;
+    private final Urgency urgency;
+    private final String location;
+    private final Double latitude;
+    private final Double longitude;
+    private final String contactName;
+    private final String contactPhone;
+    private final String contactEmail;
+    private final String description;
+    private final Status status;
+    private final Long volunteerId;
+    private final String volunteerName;
+    private final LocalDateTime createdAt;
+    private final String duplicateOf;
+    
+    // Argument order matches the JPQL constructor expressions in EmergencyRequestRepository
+    public EmergencyRequestSummary(String id, Long userId, String animalType, Urgency urgency, String location,
+                                   Double latitude, Double longitude, String contactName, String contactPhone,
+                                   String contactEmail, String description, Status status, Long volunteerId,
+                                   String volunteerName, LocalDateTime createdAt, String duplicateOf) {
+        this.id = id;
+        this.userId = userId;
+        this.animalType = animalType;
+        this.urgency = urgency;
+        this.location = location;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.contactName = contactName;
+        this.contactPhone = contactPhone;
+        this.contactEmail = contactEmail;
+        this.description = description;
+        this.status = status;
+        this.volunteerId = volunteerId;
+        this.volunteerName = volunteerName;
+        this.createdAt = createdAt;
+        this.duplicateOf = duplicateOf;
+    }
+    
+    // For requests that are already in memory (dispatch queue, geo index, spool)
+    public static EmergencyRequestSummary of(EmergencyRequest request) {
+        String description = request.getDescription();
+        if (description != null && description.length() > DESCRIPTION_PREVIEW_LENGTH) {
+            description = description.substring(0, DESCRIPTION_PREVIEW_LENGTH);
+        }
+        return new EmergencyRequestSummary(request.getId(), request.getUserId(), request.getAnimalType(),
+                request.getUrgency(), request.getLocation(), request.getLatitude(), request.getLongitude(),
+                request.getContactName(), request.getContactPhone(), request.getContactEmail(), description,
+                request.getStatus(), request.getVolunteerId(), request.getVolunteerName(), request.getCreatedAt(),
+                request.getDuplicateOf());
+    }
+    
+    public String getId() { return id; }
+    
+    public Long getUserId() { return userId; }
+    
+    public String getAnimalType() { return animalType; }
+    
+    public Urgency getUrgency() { return urgency; }
+    
+    public String getLocation() { return location; }
+    
+    public Double getLatitude() { return latitude; }
+    
+    public Double getLongitude() { return longitude; }
+    
+    public String getContactName() { return contactName; }
+    
+    public String getContactPhone() { return contactPhone; }
+    
+    public String getContactEmail() { return contactEmail; }
+    
+    public String getDescription() { return description; }
+    
+    public Status getStatus() { return status; }
+    
+    public Long getVolunteerId() { return volunteerId; }
+    
+    public String getVolunteerName() { return volunteerName; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    
+    public String getDuplicateOf() { return duplicateOf; }
+}
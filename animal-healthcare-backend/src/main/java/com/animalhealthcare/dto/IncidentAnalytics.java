@@ -0,0 +1,39 @@
+package com.animalhealthcare.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Incident counts for a time range: requests created, by urgency and animal type,
+// and status changes into each status (PENDING counts new requests)
+public class IncidentAnalytics {
+    
+    private final String granularity;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private long created;
+    private final Map<String, Long> byUrgency = new TreeMap<>();
+    private final Map<String, Long> byStatus = new TreeMap<>();
+    private final Map<String, Long> byAnimalType = new TreeMap<>();
+    
+    public IncidentAnalytics(String granularity, LocalDateTime from, LocalDateTime to) {
+        this.granularity = granularity;
+        this.from = from;
+        this.to = to;
+    }
+    
+    public String getGranularity() { return granularity; }
+    
+    public LocalDateTime getFrom() { return from; }
+    
+    public LocalDateTime getTo() { return to; }
+    
+    public long getCreated() { return created; }
+    public void setCreated(long created) { this.created = created; }
+    
+    public Map<String, Long> getByUrgency() { return byUrgency; }
+    
+    public Map<String, Long> getByStatus() { return byStatus; }
+    
+    public Map<String, Long> getByAnimalType() { return byAnimalType; }
+}
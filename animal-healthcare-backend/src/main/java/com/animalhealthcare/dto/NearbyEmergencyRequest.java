@@ -0,0 +1,19 @@
+package com.animalhealthcare.dto;
+
+import com.animalhealthcare.entity.EmergencyRequest;
+
+// An open emergency request together with its distance from the volunteer asking
+public class NearbyEmergencyRequest {
+    
+    private final EmergencyRequestSummary request;
+    private final double distanceKm;
+    
+    public NearbyEmergencyRequest(EmergencyRequest request, double distanceKm) {
+        this.request = EmergencyRequestSummary.of(request);
+        this.distanceKm = distanceKm;
+    }
+    
+    public EmergencyRequestSummary getRequest() { return request; }
+    
+    public double getDistanceKm() { return distanceKm; }
+}
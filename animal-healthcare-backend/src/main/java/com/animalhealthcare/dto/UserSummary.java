@@ -0,0 +1,43 @@
+package com.animalhealthcare.dto;
+
+import com.animalhealthcare.entity.Role;
+
+import java.time.LocalDateTime;
+
+// List-view projection of a user; never carries the password hash
+public class UserSummary {
+    
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final String fullName;
+    private final String phone;
+    private final Role role;
+    private final LocalDateTime createdAt;
+    
+    // Argument order matches the JPQL constructor expressions in UserRepository
+    public UserSummary(Long id, String username, String email, String fullName, String phone, Role role,
+                       LocalDateTime createdAt) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.fullName = fullName;
+        this.phone = phone;
+        this.role = role;
+        this.createdAt = createdAt;
+    }
+    
+    public Long getId() { return id; }
+    
+    public String getUsername() { return username; }
+    
+    public String getEmail() { return email; }
+    
+    public String getFullName() { return fullName; }
+    
+    public String getPhone() { return phone; }
+    
+    public Role getRole() { return role; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,35 @@
+package com.animalhealthcare.dto;
+
+// A volunteer suggested for a request; lower scores rank first
+public class VolunteerCandidate {
+    
+    private final Long volunteerId;
+    private final String fullName;
+    private final String phone;
+    private final Double distanceKm;
+    private final int activeAssignments;
+    private final double score;
+    
+    public VolunteerCandidate(Long volunteerId, String fullName, String phone, Double distanceKm,
+                              int activeAssignments, double score) {
+        this.volunteerId = volunteerId;
+        this.fullName = fullName;
+        this.phone = phone;
+        this.distanceKm = distanceKm;
+        this.activeAssignments = activeAssignments;
+        this.score = score;
+    }
+    
+    public Long getVolunteerId() { return volunteerId; }
+    
+    public String getFullName() { return fullName; }
+    
+    public String getPhone() { return phone; }
+    
+    // Null when the request or the volunteer has no recent position
+    public Double getDistanceKm() { return distanceKm; }
+    
+    public int getActiveAssignments() { return activeAssignments; }
+    
+    public double getScore() { return score; }
+}
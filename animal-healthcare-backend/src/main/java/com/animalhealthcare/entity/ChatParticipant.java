@@ -0,0 +1,78 @@
+package com.animalhealthcare.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// A user's membership of a chat room. lastReadMessageId is the read watermark: every message of the
+// room with a higher id, sent by someone else, is unread for this user.
+@Entity
+@Table(name = "chat_participants", uniqueConstraints = {
+    @UniqueConstraint(name = "unique_room_user", columnNames = {"chat_room_id", "user_id"})
+})
+public class ChatParticipant {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chat_room_id", nullable = false)
+    private ChatRoom chatRoom;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Role role;
+    
+    @CreationTimestamp
+    @Column(name = "joined_at")
+    private LocalDateTime joinedAt;
+    
+    @Column(name = "left_at")
+    private LocalDateTime leftAt;
+    
+    @Column(name = "is_active")
+    private boolean active = true;
+    
+    @Column(name = "last_read_message_id")
+    private Long lastReadMessageId;
+    
+    // Constructors
+    public ChatParticipant() {}
+    
+    public ChatParticipant(ChatRoom chatRoom, User user, Role role) {
+        this.chatRoom = chatRoom;
+        this.user = user;
+        this.role = role;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public ChatRoom getChatRoom() { return chatRoom; }
+    public void setChatRoom(ChatRoom chatRoom) { this.chatRoom = chatRoom; }
+    
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+    
+    public Role getRole() { return role; }
+    public void setRole(Role role) { this.role = role; }
+    
+    public LocalDateTime getJoinedAt() { return joinedAt; }
+    public void setJoinedAt(LocalDateTime joinedAt) { this.joinedAt = joinedAt; }
+    
+    public LocalDateTime getLeftAt() { return leftAt; }
+    public void setLeftAt(LocalDateTime leftAt) { this.leftAt = leftAt; }
+    
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+    
+    public Long getLastReadMessageId() { return lastReadMessageId; }
+    public void setLastReadMessageId(Long lastReadMessageId) { this.lastReadMessageId = lastReadMessageId; }
+}
@@ -7,7 +7,14 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "emergency_requests")
+@Table(name = "emergency_requests", indexes = {
+    @Index(name = "idx_emergency_created_id", columnList = "created_at, id"),
+    @Index(name = "idx_emergency_status_created_id", columnList = "status, created_at, id"),
+    @Index(name = "idx_emergency_urgency_created_id", columnList = "urgency, created_at, id"),
+    @Index(name = "idx_emergency_user_created_id", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_emergency_duplicate_of", columnList = "duplicate_of"),
+    @Index(name = "idx_emergency_status_completed", columnList = "status, completed_at")
+})
 public class EmergencyRequest {
     
     @Id
@@ -27,6 +34,10 @@ public class EmergencyRequest {
     @NotBlank(message = "Location is required")
     private String location;
     
+    private Double latitude;
+    
+    private Double longitude;
+    
     @Column(name = "contact_name", nullable = false)
     @NotBlank(message = "Contact name is required")
     private String contactName;
@@ -54,6 +65,9 @@ public class EmergencyRequest {
     @Column(name = "volunteer_phone")
     private String volunteerPhone;
     
+    @Column(name = "accepted_at")
+    private LocalDateTime acceptedAt;
+    
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -64,6 +78,10 @@ public class EmergencyRequest {
     @Column(name = "completed_by")
     private String completedBy;
     
+    // Id of the earlier report of the same incident, null for original reports
+    @Column(name = "duplicate_of")
+    private String duplicateOf;
+    
     // Constructors
     public EmergencyRequest() {}
     
@@ -94,6 +112,12 @@ public class EmergencyRequest {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
     
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    
     public String getContactName() { return contactName; }
     public void setContactName(String contactName) { this.contactName = contactName; }
     
@@ -126,4 +150,10 @@ public class EmergencyRequest {
     
     public String getCompletedBy() { return completedBy; }
     public void setCompletedBy(String completedBy) { this.completedBy = completedBy; }
+    
+    public LocalDateTime getAcceptedAt() { return acceptedAt; }
+    public void setAcceptedAt(LocalDateTime acceptedAt) { this.acceptedAt = acceptedAt; }
+    
+    public String getDuplicateOf() { return duplicateOf; }
+    public void setDuplicateOf(String duplicateOf) { this.duplicateOf = duplicateOf; }
 }
@@ -0,0 +1,11 @@
+package com.animalhealthcare.exception;
+
+// Thrown when the chat write path is saturated or shutting down; the client should retry later
+public class ChatBusyException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public ChatBusyException(String message) {
+        super(message);
+    }
+}
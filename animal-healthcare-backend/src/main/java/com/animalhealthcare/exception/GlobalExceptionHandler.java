@@ -55,6 +55,20 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("Access denied: " + ex.getMessage(), HttpStatus.FORBIDDEN.value()));
     }
     
+    @ExceptionHandler(RequestAlreadyClaimedException.class)
+    public ResponseEntity<?> handleRequestAlreadyClaimedException(RequestAlreadyClaimedException ex) {
+        logger.info("Claim conflict: " + ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(ex.getMessage(), HttpStatus.CONFLICT.value()));
+    }
+    
+    @ExceptionHandler(ChatBusyException.class)
+    public ResponseEntity<?> handleChatBusyException(ChatBusyException ex) {
+        logger.warning("Chat busy: " + ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE.value()));
+    }
+    
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<?> handleRuntimeException(RuntimeException ex) {
         logger.severe("Runtime error: " + ex.getMessage());
@@ -0,0 +1,11 @@
+package com.animalhealthcare.exception;
+
+// Thrown when a volunteer tries to claim an emergency request that is no longer pending
+public class RequestAlreadyClaimedException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public RequestAlreadyClaimedException(String message) {
+        super(message);
+    }
+}
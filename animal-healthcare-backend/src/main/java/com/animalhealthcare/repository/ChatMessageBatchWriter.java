@@ -0,0 +1,83 @@
+package com.animalhealthcare.repository;
+
+import com.animalhealthcare.dto.ChatMessageSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Group commits of chat messages. With rewriteBatchedStatements=true the driver sends the batch as a
+// single multi-row INSERT, and the rooms' last activity is moved by one UPDATE for the whole batch.
+@Repository
+public class ChatMessageBatchWriter {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO chat_messages (chat_room_id, sender_id, sender_type, message, message_type, is_read, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    // Insert the messages in the given order and touch their rooms in one transaction; ids and file
+    // fields of the input are ignored. Returns the generated ids in input order.
+    @Transactional
+    public List<Long> insertAll(List<ChatMessageSummary> messages, LocalDateTime now) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bind(ps, messages.get(i), now);
+                    }
+                    
+                    @Override
+                    public int getBatchSize() {
+                        return messages.size();
+                    }
+                }, keyHolder);
+        
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != messages.size()) {
+            throw new IllegalStateException("Expected " + messages.size() + " generated ids, got " + keys.size());
+        }
+        List<Long> ids = new ArrayList<>(keys.size());
+        for (Map<String, Object> key : keys) {
+            ids.add(((Number) key.values().iterator().next()).longValue());
+        }
+        
+        Set<Long> roomIds = new LinkedHashSet<>();
+        messages.forEach(message -> roomIds.add(message.getChatRoomId()));
+        String placeholders = String.join(", ", Collections.nCopies(roomIds.size(), "?"));
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(now));
+        args.addAll(roomIds);
+        jdbcTemplate.update("UPDATE chat_rooms SET updated_at = ? WHERE id IN (" + placeholders + ")", args.toArray());
+        
+        return ids;
+    }
+    
+    private void bind(PreparedStatement ps, ChatMessageSummary message, LocalDateTime now) throws SQLException {
+        ps.setLong(1, message.getChatRoomId());
+        ps.setLong(2, message.getSenderId());
+        ps.setString(3, message.getSenderType().name());
+        ps.setString(4, message.getMessage());
+        ps.setString(5, message.getMessageType().name());
+        ps.setBoolean(6, false);
+        ps.setTimestamp(7, Timestamp.valueOf(now));
+    }
+}
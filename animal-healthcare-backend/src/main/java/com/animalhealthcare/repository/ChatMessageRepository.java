@@ -1,17 +1,23 @@
 package com.animalhealthcare.repository;
 
+import com.animalhealthcare.dto.ChatMessageSummary;
 import com.animalhealthcare.entity.ChatMessage;
 import com.animalhealthcare.entity.ChatRoom;
 import com.animalhealthcare.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
@@ -22,18 +28,51 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
     // Find messages by chat room with pagination
     Page<ChatMessage> findByChatRoomOrderByCreatedAtDesc(ChatRoom chatRoom, Pageable pageable);
     
-    // Find unread messages for a user in a specific chat room
-    @Query("SELECT m FROM ChatMessage m WHERE m.chatRoom = :chatRoom AND m.sender != :user AND m.isRead = false ORDER BY m.createdAt ASC")
-    List<ChatMessage> findUnreadMessages(@Param("chatRoom") ChatRoom chatRoom, @Param("user") User user);
+    // Projections for responses; the sender is joined for its name and the room is referenced by id only
+    String SUMMARY_SELECT = "SELECT new com.animalhealthcare.dto.ChatMessageSummary(m.id, m.chatRoom.id, s.id, " +
+           "s.fullName, m.senderType, m.message, m.messageType, m.fileUrl, m.fileName, m.fileSize, " +
+           "m.createdAt, m.editedAt) FROM ChatMessage m JOIN m.sender s ";
     
-    // Count unread messages for a user in a specific chat room
-    @Query("SELECT COUNT(m) FROM ChatMessage m WHERE m.chatRoom = :chatRoom AND m.sender != :user AND m.isRead = false")
-    long countUnreadMessages(@Param("chatRoom") ChatRoom chatRoom, @Param("user") User user);
+    // Whole transcript, oldest first, read from a cursor; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = QueryHintValues.STREAM_FETCH_SIZE))
+    @Query(SUMMARY_SELECT + "WHERE m.chatRoom.id = :chatRoomId ORDER BY m.createdAt ASC")
+    Stream<ChatMessageSummary> streamSummariesByChatRoomId(@Param("chatRoomId") Long chatRoomId);
     
-    // Mark messages as read for a user in a chat room
-    @Modifying
-    @Query("UPDATE ChatMessage m SET m.isRead = true WHERE m.chatRoom = :chatRoom AND m.sender != :user AND m.isRead = false")
-    int markMessagesAsRead(@Param("chatRoom") ChatRoom chatRoom, @Param("user") User user);
+    // Keyset pages over idx_chat_room_message (chat_room_id, id): a seek plus limit rows, no count query
+    @Query(SUMMARY_SELECT + "WHERE m.chatRoom.id = :chatRoomId AND m.id < :before ORDER BY m.id DESC")
+    List<ChatMessageSummary> findSummariesBefore(@Param("chatRoomId") Long chatRoomId, @Param("before") Long before,
+                                                 Limit limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE m.chatRoom.id = :chatRoomId AND m.id > :after ORDER BY m.id ASC")
+    List<ChatMessageSummary> findSummariesAfter(@Param("chatRoomId") Long chatRoomId, @Param("after") Long after,
+                                                Limit limit);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE m.chatRoom.id = :chatRoomId ORDER BY m.createdAt DESC",
+           countQuery = "SELECT COUNT(m) FROM ChatMessage m WHERE m.chatRoom.id = :chatRoomId")
+    Page<ChatMessageSummary> findSummaryPageByChatRoomId(@Param("chatRoomId") Long chatRoomId, Pageable pageable);
+    
+    // Messages from others above the user's read watermark: one range over idx_chat_room_message
+    @Query("SELECT COUNT(m) FROM ChatMessage m WHERE m.chatRoom.id = :chatRoomId AND m.sender.id <> :userId " +
+           "AND m.id > COALESCE((SELECT p.lastReadMessageId FROM ChatParticipant p " +
+           "WHERE p.chatRoom.id = :chatRoomId AND p.user.id = :userId), 0)")
+    long countUnreadMessages(@Param("chatRoomId") Long chatRoomId, @Param("userId") Long userId);
+    
+    // The same count for several rooms at once, as [chatRoomId, count] rows; rooms with none are left out
+    @Query("SELECT m.chatRoom.id, COUNT(m) FROM ChatMessage m LEFT JOIN ChatParticipant p " +
+           "ON p.chatRoom.id = m.chatRoom.id AND p.user.id = :userId " +
+           "WHERE m.chatRoom.id IN :chatRoomIds AND m.sender.id <> :userId " +
+           "AND m.id > COALESCE(p.lastReadMessageId, 0) GROUP BY m.chatRoom.id")
+    List<Object[]> countUnreadMessagesByRoom(@Param("chatRoomIds") Collection<Long> chatRoomIds,
+                                             @Param("userId") Long userId);
+    
+    // Newest message of each of the rooms, for inbox previews
+    @Query(SUMMARY_SELECT + "WHERE m.id IN (SELECT MAX(l.id) FROM ChatMessage l " +
+           "WHERE l.chatRoom.id IN :chatRoomIds GROUP BY l.chatRoom.id)")
+    List<ChatMessageSummary> findLatestSummariesByChatRoomIds(@Param("chatRoomIds") Collection<Long> chatRoomIds);
+    
+    // Newest message id in the room that is not above upTo; null for an empty room
+    @Query("SELECT MAX(m.id) FROM ChatMessage m WHERE m.chatRoom.id = :chatRoomId AND m.id <= :upTo")
+    Long findLatestMessageId(@Param("chatRoomId") Long chatRoomId, @Param("upTo") Long upTo);
     
     // Find latest message in a chat room
     ChatMessage findFirstByChatRoomOrderByCreatedAtDesc(ChatRoom chatRoom);
@@ -0,0 +1,24 @@
+package com.animalhealthcare.repository;
+
+import com.animalhealthcare.entity.ChatParticipant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChatParticipantRepository extends JpaRepository<ChatParticipant, Long> {
+    
+    // Moves the user's read watermark forward in one statement, creating the participant row on first
+    // read; the role is copied from the user. The watermark never moves back, so a late or repeated
+    // request cannot mark messages unread again.
+    @Modifying
+    @Query(value = "INSERT INTO chat_participants (chat_room_id, user_id, role, joined_at, is_active, last_read_message_id) " +
+           "SELECT :chatRoomId, u.id, u.role, NOW(), TRUE, :messageId FROM users u WHERE u.id = :userId " +
+           "ON DUPLICATE KEY UPDATE last_read_message_id = " +
+           "GREATEST(COALESCE(last_read_message_id, 0), VALUES(last_read_message_id))",
+           nativeQuery = true)
+    int advanceReadWatermark(@Param("chatRoomId") Long chatRoomId, @Param("userId") Long userId,
+                             @Param("messageId") Long messageId);
+}
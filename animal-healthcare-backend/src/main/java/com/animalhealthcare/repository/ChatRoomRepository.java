@@ -1,12 +1,15 @@
 package com.animalhealthcare.repository;
 
+import com.animalhealthcare.dto.ChatRoomSummary;
 import com.animalhealthcare.entity.ChatRoom;
+import com.animalhealthcare.entity.ChatStatus;
 import com.animalhealthcare.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +36,29 @@ public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
     // Find chat rooms by status
     List<ChatRoom> findByStatusOrderByUpdatedAtDesc(com.animalhealthcare.entity.ChatStatus status);
     
+    // Projections for responses; participants are joined once instead of loaded as lazy proxies
+    String SUMMARY_SELECT = "SELECT new com.animalhealthcare.dto.ChatRoomSummary(c.id, c.emergencyRequestId, " +
+           "u.id, u.fullName, v.id, v.fullName, c.status, c.createdAt, c.updatedAt) " +
+           "FROM ChatRoom c JOIN c.user u LEFT JOIN c.volunteer v ";
+    
+    @Query(SUMMARY_SELECT + "WHERE c.emergencyRequestId = :emergencyRequestId")
+    Optional<ChatRoomSummary> findSummaryByEmergencyRequestId(@Param("emergencyRequestId") String emergencyRequestId);
+    
+    @Query(SUMMARY_SELECT + "WHERE u.id = :userId OR v.id = :userId ORDER BY c.updatedAt DESC")
+    List<ChatRoomSummary> findSummariesByParticipant(@Param("userId") Long userId);
+    
+    @Query(SUMMARY_SELECT + "WHERE c.status = :status ORDER BY c.updatedAt DESC")
+    List<ChatRoomSummary> findSummariesByStatus(@Param("status") ChatStatus status);
+    
+    // Whether the user is the requester or the assigned volunteer of the room
+    @Query("SELECT COUNT(c) > 0 FROM ChatRoom c WHERE c.id = :chatRoomId " +
+           "AND (c.user.id = :userId OR c.volunteer.id = :userId)")
+    boolean isParticipant(@Param("chatRoomId") Long chatRoomId, @Param("userId") Long userId);
+    
+    // Which of the given rooms exist
+    @Query("SELECT c.id FROM ChatRoom c WHERE c.id IN :chatRoomIds")
+    List<Long> findExistingIds(@Param("chatRoomIds") Collection<Long> chatRoomIds);
+    
     // Check if chat room exists for emergency request
     boolean existsByEmergencyRequestId(String emergencyRequestId);
 }
@@ -0,0 +1,149 @@
+package com.animalhealthcare.repository;
+
+import com.animalhealthcare.entity.EmergencyRequest;
+import com.animalhealthcare.entity.Status;
+import com.animalhealthcare.entity.Urgency;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Cold storage for completed emergency requests. Rows are moved out of emergency_requests in
+// small chunks so the active table only holds the working set. The table layout lives in
+// db/migration/emergency_archive.sql and is checked against emergency_requests on startup.
+@Repository
+public class EmergencyArchiveRepository {
+
+    private static final String COLUMNS =
+            "id, user_id, animal_type, urgency, location, latitude, longitude, contact_name, contact_phone, " +
+            "contact_email, description, status, volunteer_id, volunteer_name, volunteer_phone, accepted_at, created_at, " +
+            "completed_at, completed_by, duplicate_of";
+
+    private static final String SCHEMA_SCRIPT = "db/migration/emergency_archive.sql";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    public void createTableIfMissing() {
+        new ResourceDatabasePopulator(new ClassPathResource(SCHEMA_SCRIPT)).execute(dataSource);
+        // Archives created before accepted_at existed; see db/migration/emergency_archive_accepted_at.sql
+        if (!columnsOf("emergency_requests_archive").contains("accepted_at")) {
+            jdbcTemplate.execute("ALTER TABLE emergency_requests_archive ADD COLUMN accepted_at DATETIME(6) NULL");
+        }
+    }
+
+    // Columns present in only one of the two tables, prefixed with the table that has them; empty when
+    // the archive can hold every column of an active row
+    public List<String> findSchemaDifferences() {
+        Set<String> active = columnsOf("emergency_requests");
+        Set<String> archive = columnsOf("emergency_requests_archive");
+        List<String> differences = new ArrayList<>();
+        active.stream().filter(column -> !archive.contains(column))
+                .forEach(column -> differences.add("emergency_requests." + column));
+        archive.stream().filter(column -> !active.contains(column))
+                .forEach(column -> differences.add("emergency_requests_archive." + column));
+        return differences;
+    }
+
+    private Set<String> columnsOf(String table) {
+        return new TreeSet<>(jdbcTemplate.queryForList(
+                "SELECT LOWER(column_name) FROM information_schema.columns " +
+                "WHERE table_schema = DATABASE() AND table_name = ?", String.class, table));
+    }
+
+    // Oldest completed requests first, using the (status, completed_at) index
+    public List<String> findArchivableIds(LocalDateTime completedBefore, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM emergency_requests WHERE status = 'COMPLETED' AND completed_at < ? " +
+                "ORDER BY completed_at LIMIT ?",
+                String.class, Timestamp.valueOf(completedBefore), limit);
+    }
+
+    // Copy and delete in one short transaction; rows reopened in the meantime are left alone
+    @Transactional
+    public int moveToArchive(List<String> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] args = ids.toArray();
+        jdbcTemplate.update("INSERT IGNORE INTO emergency_requests_archive (" + COLUMNS + ") " +
+                "SELECT " + COLUMNS + " FROM emergency_requests " +
+                "WHERE status = 'COMPLETED' AND id IN (" + placeholders + ")", args);
+        return jdbcTemplate.update("DELETE FROM emergency_requests " +
+                "WHERE status = 'COMPLETED' AND id IN (" + placeholders + ")", args);
+    }
+
+    public Optional<EmergencyRequest> findById(String id) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM emergency_requests_archive WHERE id = ?",
+                this::mapRow, id).stream().findFirst();
+    }
+
+    public Map<Status, Long> countGroupedByStatus() {
+        Map<Status, Long> counts = new EnumMap<>(Status.class);
+        jdbcTemplate.query("SELECT status, COUNT(*) FROM emergency_requests_archive WHERE status IS NOT NULL GROUP BY status",
+                rs -> {
+                    counts.put(Status.valueOf(rs.getString(1)), rs.getLong(2));
+                });
+        return counts;
+    }
+
+    public Map<Urgency, Long> countGroupedByUrgency() {
+        Map<Urgency, Long> counts = new EnumMap<>(Urgency.class);
+        jdbcTemplate.query("SELECT urgency, COUNT(*) FROM emergency_requests_archive WHERE urgency IS NOT NULL GROUP BY urgency",
+                rs -> {
+                    counts.put(Urgency.valueOf(rs.getString(1)), rs.getLong(2));
+                });
+        return counts;
+    }
+
+    private EmergencyRequest mapRow(ResultSet rs, int rowNum) throws SQLException {
+        EmergencyRequest request = new EmergencyRequest();
+        request.setId(rs.getString("id"));
+        request.setUserId(rs.getObject("user_id", Long.class));
+        request.setAnimalType(rs.getString("animal_type"));
+        String urgency = rs.getString("urgency");
+        request.setUrgency(urgency != null ? Urgency.valueOf(urgency) : null);
+        request.setLocation(rs.getString("location"));
+        request.setLatitude(rs.getObject("latitude", Double.class));
+        request.setLongitude(rs.getObject("longitude", Double.class));
+        request.setContactName(rs.getString("contact_name"));
+        request.setContactPhone(rs.getString("contact_phone"));
+        request.setContactEmail(rs.getString("contact_email"));
+        request.setDescription(rs.getString("description"));
+        String status = rs.getString("status");
+        request.setStatus(status != null ? Status.valueOf(status) : null);
+        request.setVolunteerId(rs.getObject("volunteer_id", Long.class));
+        request.setVolunteerName(rs.getString("volunteer_name"));
+        request.setVolunteerPhone(rs.getString("volunteer_phone"));
+        request.setAcceptedAt(toLocalDateTime(rs.getTimestamp("accepted_at")));
+        request.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        request.setCompletedAt(toLocalDateTime(rs.getTimestamp("completed_at")));
+        request.setCompletedBy(rs.getString("completed_by"));
+        request.setDuplicateOf(rs.getString("duplicate_of"));
+        return request;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
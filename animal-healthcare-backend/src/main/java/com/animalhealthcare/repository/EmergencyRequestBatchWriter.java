@@ -0,0 +1,52 @@
+package com.animalhealthcare.repository;
+
+import com.animalhealthcare.entity.EmergencyRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+// JDBC batch inserts for emergency requests. IDs are assigned by the application,
+// so rows can be sent in batches without waiting on generated keys.
+@Repository
+public class EmergencyRequestBatchWriter {
+    
+    private static final int JDBC_BATCH_SIZE = 500;
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO emergency_requests (id, user_id, animal_type, urgency, location, latitude, longitude, " +
+            "contact_name, contact_phone, contact_email, description, status, created_at, duplicate_of) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    // Insert all rows in one transaction; created_at must already be set
+    @Transactional
+    public void insertAll(List<EmergencyRequest> requests) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, requests, JDBC_BATCH_SIZE, this::bind);
+    }
+    
+    private void bind(PreparedStatement ps, EmergencyRequest request) throws SQLException {
+        ps.setString(1, request.getId());
+        ps.setObject(2, request.getUserId(), Types.BIGINT);
+        ps.setString(3, request.getAnimalType());
+        ps.setString(4, request.getUrgency() != null ? request.getUrgency().name() : null);
+        ps.setString(5, request.getLocation());
+        ps.setObject(6, request.getLatitude(), Types.DOUBLE);
+        ps.setObject(7, request.getLongitude(), Types.DOUBLE);
+        ps.setString(8, request.getContactName());
+        ps.setString(9, request.getContactPhone());
+        ps.setString(10, request.getContactEmail());
+        ps.setString(11, request.getDescription());
+        ps.setString(12, request.getStatus() != null ? request.getStatus().name() : null);
+        ps.setTimestamp(13, Timestamp.valueOf(request.getCreatedAt()));
+        ps.setString(14, request.getDuplicateOf());
+    }
+}
@@ -1,39 +1,177 @@
 package com.animalhealthcare.repository;
 
+import com.animalhealthcare.dto.EmergencyRequestSummary;
 import com.animalhealthcare.entity.EmergencyRequest;
 import com.animalhealthcare.entity.Status;
 import com.animalhealthcare.entity.Urgency;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EmergencyRequestRepository extends JpaRepository<EmergencyRequest, String> {
     
     List<EmergencyRequest> findByStatus(Status status);
     
-    List<EmergencyRequest> findByUrgency(Urgency urgency);
+    List<EmergencyRequest> findByVolunteerId(Long volunteerId);
     
-    List<EmergencyRequest> findByUserId(Long userId);
+    @Query("SELECT er FROM EmergencyRequest er WHERE er.createdAt >= :since AND er.status <> :closedStatus " +
+           "ORDER BY er.createdAt ASC")
+    List<EmergencyRequest> findOpenCreatedSince(@Param("since") LocalDateTime since,
+                                                @Param("closedStatus") Status closedStatus);
     
-    List<EmergencyRequest> findByVolunteerId(Long volunteerId);
+    List<EmergencyRequest> findByStatusIn(Collection<Status> statuses);
+    
+    @Query("SELECT er.volunteerId, COUNT(er) FROM EmergencyRequest er " +
+           "WHERE er.volunteerId IS NOT NULL AND er.status IN :statuses GROUP BY er.volunteerId")
+    List<Object[]> countGroupedByVolunteer(@Param("statuses") Collection<Status> statuses);
+    
+    @Query("SELECT er.id FROM EmergencyRequest er WHERE er.id IN :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+    
+    @Query("SELECT er FROM EmergencyRequest er WHERE er.status <> :closedStatus " +
+           "AND er.latitude IS NOT NULL AND er.longitude IS NOT NULL")
+    List<EmergencyRequest> findOpenWithCoordinates(@Param("closedStatus") Status closedStatus);
+    
+    // Claim a request only if it is still in the expected status; returns 0 when another volunteer won
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE EmergencyRequest er SET er.volunteerId = :volunteerId, er.volunteerName = :volunteerName, " +
+           "er.volunteerPhone = :volunteerPhone, er.status = :newStatus, er.acceptedAt = :acceptedAt " +
+           "WHERE er.id = :id AND er.status = :expectedStatus")
+    int claim(@Param("id") String id, @Param("volunteerId") Long volunteerId,
+              @Param("volunteerName") String volunteerName, @Param("volunteerPhone") String volunteerPhone,
+              @Param("expectedStatus") Status expectedStatus, @Param("newStatus") Status newStatus,
+              @Param("acceptedAt") LocalDateTime acceptedAt);
+    
+    // Raise urgency only if the request is still waiting at the urgency the deadline was set for
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE EmergencyRequest er SET er.urgency = :newUrgency " +
+           "WHERE er.id = :id AND er.status = :status AND er.urgency = :expectedUrgency")
+    int escalate(@Param("id") String id, @Param("status") Status status,
+                 @Param("expectedUrgency") Urgency expectedUrgency, @Param("newUrgency") Urgency newUrgency);
+    
+    // Return a claim to the pool only if the same volunteer still holds it from the same acceptance
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE EmergencyRequest er SET er.status = :releasedStatus, er.volunteerId = NULL, " +
+           "er.volunteerName = NULL, er.volunteerPhone = NULL, er.acceptedAt = NULL " +
+           "WHERE er.id = :id AND er.status = :claimedStatus AND er.volunteerId = :volunteerId " +
+           "AND (er.acceptedAt = :acceptedAt OR (er.acceptedAt IS NULL AND :acceptedAt IS NULL))")
+    int release(@Param("id") String id, @Param("volunteerId") Long volunteerId,
+                @Param("acceptedAt") LocalDateTime acceptedAt,
+                @Param("claimedStatus") Status claimedStatus, @Param("releasedStatus") Status releasedStatus);
+    
+    // Change the status only if it is still the one the caller read, so the caller knows what it replaced
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE EmergencyRequest er SET er.status = :newStatus WHERE er.id = :id " +
+           "AND (er.status = :expectedStatus OR (er.status IS NULL AND :expectedStatus IS NULL))")
+    int transitionStatus(@Param("id") String id, @Param("expectedStatus") Status expectedStatus,
+                         @Param("newStatus") Status newStatus);
+    
+    // Complete a request still in the status the caller read; a non-null volunteerId also requires the
+    // request to still be assigned to that volunteer
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE EmergencyRequest er SET er.status = :completedStatus, er.completedAt = :completedAt, " +
+           "er.completedBy = :completedBy WHERE er.id = :id " +
+           "AND (er.status = :expectedStatus OR (er.status IS NULL AND :expectedStatus IS NULL)) " +
+           "AND (:volunteerId IS NULL OR er.volunteerId = :volunteerId)")
+    int complete(@Param("id") String id, @Param("expectedStatus") Status expectedStatus,
+                 @Param("completedStatus") Status completedStatus, @Param("volunteerId") Long volunteerId,
+                 @Param("completedAt") LocalDateTime completedAt, @Param("completedBy") String completedBy);
+    
+    // Row-locked read for read-modify-write changes; must run inside a transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT er FROM EmergencyRequest er WHERE er.id = :id")
+    Optional<EmergencyRequest> findByIdForUpdate(@Param("id") String id);
+    
+    @Query("SELECT er.status, COUNT(er) FROM EmergencyRequest er GROUP BY er.status")
+    List<Object[]> countGroupedByStatus();
+    
+    @Query("SELECT er.urgency, COUNT(er) FROM EmergencyRequest er GROUP BY er.urgency")
+    List<Object[]> countGroupedByUrgency();
+    
+    // Full requests in keyset order, for rebuilding in-memory indexes that need every field
+    @Query("SELECT er FROM EmergencyRequest er " +
+           "WHERE (er.createdAt < :createdAt OR (er.createdAt = :createdAt AND er.id < :id)) " +
+           "ORDER BY er.createdAt DESC, er.id DESC")
+    List<EmergencyRequest> findBatch(@Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Limit limit);
+    
+    // Projection used by list views; the description is cut to EmergencyRequestSummary.DESCRIPTION_PREVIEW_LENGTH
+    String SUMMARY_SELECT = "SELECT new com.animalhealthcare.dto.EmergencyRequestSummary(er.id, er.userId, " +
+           "er.animalType, er.urgency, er.location, er.latitude, er.longitude, er.contactName, er.contactPhone, " +
+           "er.contactEmail, SUBSTRING(er.description, 1, " + EmergencyRequestSummary.DESCRIPTION_PREVIEW_LENGTH + "), " +
+           "er.status, er.volunteerId, er.volunteerName, " +
+           "er.createdAt, er.duplicateOf) FROM EmergencyRequest er ";
+    
+    // Every request, newest first, read from a cursor; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = QueryHintValues.STREAM_FETCH_SIZE))
+    @Query(SUMMARY_SELECT + "ORDER BY er.createdAt DESC, er.id DESC")
+    Stream<EmergencyRequestSummary> streamAllSummaries();
+    
+    @Query(SUMMARY_SELECT + "WHERE er.duplicateOf = :duplicateOf ORDER BY er.createdAt ASC")
+    List<EmergencyRequestSummary> findSummariesByDuplicateOf(@Param("duplicateOf") String duplicateOf);
+    
+    @Query(SUMMARY_SELECT + "WHERE er.id IN :ids")
+    List<EmergencyRequestSummary> findSummariesByIdIn(@Param("ids") Collection<String> ids);
+    
+    // Keyset pages, newest first, positioned after the (createdAt, id) of the previous page's last row
+    @Query(SUMMARY_SELECT +
+           "WHERE (er.createdAt < :createdAt OR (er.createdAt = :createdAt AND er.id < :id)) " +
+           "ORDER BY er.createdAt DESC, er.id DESC")
+    List<EmergencyRequestSummary> findPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Limit limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE er.status = :status " +
+           "AND (er.createdAt < :createdAt OR (er.createdAt = :createdAt AND er.id < :id)) " +
+           "ORDER BY er.createdAt DESC, er.id DESC")
+    List<EmergencyRequestSummary> findPageByStatus(@Param("status") Status status, @Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("id") String id, Limit limit);
     
-    @Query("SELECT er FROM EmergencyRequest er WHERE er.status = :status ORDER BY er.urgency ASC, er.createdAt ASC")
-    List<EmergencyRequest> findPendingRequestsByPriority(@Param("status") Status status);
+    @Query(SUMMARY_SELECT + "WHERE er.urgency = :urgency " +
+           "AND (er.createdAt < :createdAt OR (er.createdAt = :createdAt AND er.id < :id)) " +
+           "ORDER BY er.createdAt DESC, er.id DESC")
+    List<EmergencyRequestSummary> findPageByUrgency(@Param("urgency") Urgency urgency, @Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("id") String id, Limit limit);
     
-    @Query("SELECT er FROM EmergencyRequest er WHERE er.createdAt >= :fromDate ORDER BY er.createdAt DESC")
-    List<EmergencyRequest> findRecentRequests(@Param("fromDate") LocalDateTime fromDate);
+    @Query(SUMMARY_SELECT + "WHERE er.userId = :userId " +
+           "AND (er.createdAt < :createdAt OR (er.createdAt = :createdAt AND er.id < :id)) " +
+           "ORDER BY er.createdAt DESC, er.id DESC")
+    List<EmergencyRequestSummary> findPageByUserId(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("id") String id, Limit limit);
     
-    @Query("SELECT er FROM EmergencyRequest er WHERE er.location LIKE %:location%")
-    List<EmergencyRequest> findByLocationContaining(@Param("location") String location);
+    @Query(SUMMARY_SELECT + "WHERE er.createdAt >= :fromDate " +
+           "AND (er.createdAt < :createdAt OR (er.createdAt = :createdAt AND er.id < :id)) " +
+           "ORDER BY er.createdAt DESC, er.id DESC")
+    List<EmergencyRequestSummary> findRecentPage(@Param("fromDate") LocalDateTime fromDate, @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("id") String id, Limit limit);
     
-    @Query("SELECT er FROM EmergencyRequest er WHERE er.animalType LIKE %:animalType%")
-    List<EmergencyRequest> findByAnimalTypeContaining(@Param("animalType") String animalType);
+    @Query(SUMMARY_SELECT + "WHERE er.location LIKE %:location% " +
+           "AND (er.createdAt < :createdAt OR (er.createdAt = :createdAt AND er.id < :id)) " +
+           "ORDER BY er.createdAt DESC, er.id DESC")
+    List<EmergencyRequestSummary> findPageByLocationContaining(@Param("location") String location, @Param("createdAt") LocalDateTime createdAt,
+                                                               @Param("id") String id, Limit limit);
     
-    @Query("SELECT COUNT(er) FROM EmergencyRequest er WHERE er.status = :status")
-    Long countByStatus(@Param("status") Status status);
+    @Query(SUMMARY_SELECT + "WHERE er.animalType LIKE %:animalType% " +
+           "AND (er.createdAt < :createdAt OR (er.createdAt = :createdAt AND er.id < :id)) " +
+           "ORDER BY er.createdAt DESC, er.id DESC")
+    List<EmergencyRequestSummary> findPageByAnimalTypeContaining(@Param("animalType") String animalType, @Param("createdAt") LocalDateTime createdAt,
+                                                                 @Param("id") String id, Limit limit);
 }
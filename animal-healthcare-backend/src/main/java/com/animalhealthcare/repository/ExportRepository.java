@@ -0,0 +1,101 @@
+package com.animalhealthcare.repository;
+
+import com.animalhealthcare.entity.Status;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Raw reads for bulk exports. The extractor walks the rows as they arrive from a server-side
+// cursor (useCursorFetch=true with a fetch size), so no result is ever held in memory here.
+// Column labels are the field names used in the exported files.
+@Repository
+public class ExportRepository {
+
+    private static final String EMERGENCY_COLUMNS =
+            "id AS id, user_id AS userId, animal_type AS animalType, urgency AS urgency, location AS location, " +
+            "latitude AS latitude, longitude AS longitude, contact_name AS contactName, " +
+            "contact_phone AS contactPhone, contact_email AS contactEmail, description AS description, " +
+            "status AS status, volunteer_id AS volunteerId, volunteer_name AS volunteerName, " +
+            "volunteer_phone AS volunteerPhone, accepted_at AS acceptedAt, created_at AS createdAt, " +
+            "completed_at AS completedAt, completed_by AS completedBy, duplicate_of AS duplicateOf";
+
+    private static final String MESSAGE_COLUMNS =
+            "m.id AS id, m.chat_room_id AS chatRoomId, m.sender_id AS senderId, u.full_name AS senderName, " +
+            "m.sender_type AS senderType, m.message AS message, m.message_type AS messageType, " +
+            "m.file_url AS fileUrl, m.file_name AS fileName, m.file_size AS fileSize, " +
+            "m.created_at AS createdAt, m.edited_at AS editedAt";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    private JdbcTemplate exportJdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        exportJdbcTemplate = new JdbcTemplate(dataSource);
+        exportJdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    // Requests created in [from, to), oldest first; null bounds and status are not filtered on. With
+    // includeArchived, requests moved to the archive table are read too, merged in by a server-side sort.
+    public <T> T streamEmergencyRequests(LocalDateTime from, LocalDateTime to, Status status,
+                                         boolean includeArchived, ResultSetExtractor<T> extractor) {
+        StringBuilder sql = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        appendEmergencySelect(sql, args, "emergency_requests", from, to, status);
+        if (includeArchived) {
+            sql.append(" UNION ALL ");
+            appendEmergencySelect(sql, args, "emergency_requests_archive", from, to, status);
+            sql.append(" ORDER BY createdAt, id");
+        } else {
+            sql.append(" ORDER BY created_at, id");
+        }
+        return exportJdbcTemplate.query(sql.toString(), extractor, args.toArray());
+    }
+
+    // One room's messages sent in [from, to), oldest first
+    public <T> T streamChatMessages(Long chatRoomId, LocalDateTime from, LocalDateTime to,
+                                    ResultSetExtractor<T> extractor) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(MESSAGE_COLUMNS)
+                .append(" FROM chat_messages m JOIN users u ON u.id = m.sender_id WHERE m.chat_room_id = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(chatRoomId);
+        appendCreatedRange(sql, args, "m.created_at", from, to);
+        sql.append(" ORDER BY m.created_at, m.id");
+        return exportJdbcTemplate.query(sql.toString(), extractor, args.toArray());
+    }
+
+    private static void appendEmergencySelect(StringBuilder sql, List<Object> args, String table,
+                                              LocalDateTime from, LocalDateTime to, Status status) {
+        sql.append("SELECT ").append(EMERGENCY_COLUMNS).append(" FROM ").append(table).append(" WHERE 1 = 1");
+        appendCreatedRange(sql, args, "created_at", from, to);
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status.name());
+        }
+    }
+
+    private static void appendCreatedRange(StringBuilder sql, List<Object> args, String column,
+                                           LocalDateTime from, LocalDateTime to) {
+        if (from != null) {
+            sql.append(" AND ").append(column).append(" >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND ").append(column).append(" < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+    }
+}
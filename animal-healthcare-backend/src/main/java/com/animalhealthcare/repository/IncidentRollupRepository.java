@@ -0,0 +1,111 @@
+package com.animalhealthcare.repository;
+
+import com.animalhealthcare.entity.Status;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Persisted hourly and daily incident counts; see db/migration/incident_rollups.sql.
+// Rows hold absolute per-bucket counts, so writing the same bucket again is harmless.
+@Repository
+public class IncidentRollupRepository {
+
+    private static final int JDBC_BATCH_SIZE = 500;
+
+    private static final String SCHEMA_SCRIPT = "db/migration/incident_rollups.sql";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO incident_rollups (granularity, bucket_start, metric, count) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE count = VALUES(count)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    // The script is the single definition of the table
+    public void createTableIfMissing() {
+        new ResourceDatabasePopulator(new ClassPathResource(SCHEMA_SCRIPT)).execute(dataSource);
+    }
+
+    @Transactional
+    public void upsertAll(List<Row> rows) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, JDBC_BATCH_SIZE, (ps, row) -> {
+            ps.setString(1, row.granularity());
+            ps.setTimestamp(2, Timestamp.valueOf(row.bucketStart()));
+            ps.setString(3, row.metric());
+            ps.setLong(4, row.count());
+        });
+    }
+
+    // Oldest bucket first
+    public List<Row> findSince(String granularity, LocalDateTime since) {
+        return jdbcTemplate.query(
+                "SELECT granularity, bucket_start, metric, count FROM incident_rollups " +
+                "WHERE granularity = ? AND bucket_start >= ? ORDER BY bucket_start",
+                (rs, rowNum) -> new Row(rs.getString(1), rs.getTimestamp(2).toLocalDateTime(),
+                        rs.getString(3), rs.getLong(4)),
+                granularity, Timestamp.valueOf(since));
+    }
+
+    public boolean isEmpty() {
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM incident_rollups LIMIT 1) t",
+                Integer.class);
+        return rows == null || rows == 0;
+    }
+
+    // Hourly history rebuilt from the requests, archived ones included, used once when the rollup table
+    // is new. Creation, acceptance and completion can be recovered from their timestamps; other status
+    // changes are not recorded on the row.
+    public List<HistoryRow> findHistorySince(LocalDateTime since) {
+        List<HistoryRow> history = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT DATE_FORMAT(created_at, '%Y-%m-%d %H:00:00'), urgency, animal_type, COUNT(*) " +
+                "FROM " + allRequests("created_at, urgency, animal_type") + " WHERE created_at >= ? " +
+                "GROUP BY DATE_FORMAT(created_at, '%Y-%m-%d %H:00:00'), urgency, animal_type",
+                rs -> {
+                    history.add(new HistoryRow(Timestamp.valueOf(rs.getString(1)).toLocalDateTime(), null,
+                            rs.getString(2), rs.getString(3), rs.getLong(4)));
+                },
+                Timestamp.valueOf(since));
+        // A released claim clears accepted_at, matching the live rollups, which count only claims that stand
+        addStatusHistory(history, Status.ACCEPTED, "accepted_at", "accepted_at IS NOT NULL", since);
+        addStatusHistory(history, Status.COMPLETED, "completed_at", "status = 'COMPLETED'", since);
+        return history;
+    }
+
+    private void addStatusHistory(List<HistoryRow> history, Status status, String column, String condition,
+                                  LocalDateTime since) {
+        jdbcTemplate.query(
+                "SELECT DATE_FORMAT(" + column + ", '%Y-%m-%d %H:00:00'), COUNT(*) " +
+                "FROM " + allRequests("status, " + column) + " WHERE " + condition + " AND " + column + " >= ? " +
+                "GROUP BY DATE_FORMAT(" + column + ", '%Y-%m-%d %H:00:00')",
+                rs -> {
+                    history.add(new HistoryRow(Timestamp.valueOf(rs.getString(1)).toLocalDateTime(), status,
+                            null, null, rs.getLong(2)));
+                },
+                Timestamp.valueOf(since));
+    }
+
+    // Live and archived requests as one derived table with the given columns
+    private static String allRequests(String columns) {
+        return "(SELECT " + columns + " FROM emergency_requests UNION ALL " +
+               "SELECT " + columns + " FROM emergency_requests_archive) r";
+    }
+
+    public record Row(String granularity, LocalDateTime bucketStart, String metric, long count) {}
+
+    // Within one hour, either requests created with one urgency and animal type (status null), or
+    // requests that moved into status
+    public record HistoryRow(LocalDateTime hour, Status status, String urgency, String animalType, long count) {}
+}
@@ -0,0 +1,11 @@
+package com.animalhealthcare.repository;
+
+// Shared values for @QueryHint annotations
+public final class QueryHintValues {
+
+    // Rows per round trip for streamed reads. MySQL only honours it with useCursorFetch=true on the
+    // JDBC URL; without that the driver would buffer the whole result before returning the first row.
+    public static final String STREAM_FETCH_SIZE = "500";
+
+    private QueryHintValues() {}
+}
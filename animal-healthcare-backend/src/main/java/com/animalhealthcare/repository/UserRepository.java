@@ -1,14 +1,20 @@
 package com.animalhealthcare.repository;
 
+import com.animalhealthcare.dto.UserSummary;
 import com.animalhealthcare.entity.User;
 import com.animalhealthcare.entity.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -23,9 +29,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     List<User> findByRole(Role role);
     
-    @Query("SELECT u FROM User u WHERE u.role = :role AND u.username LIKE %:search%")
-    List<User> findVolunteersBySearch(@Param("role") Role role, @Param("search") String search);
+    // Projections for list views; the password column is never selected
+    String SUMMARY_SELECT = "SELECT new com.animalhealthcare.dto.UserSummary(u.id, u.username, u.email, " +
+           "u.fullName, u.phone, u.role, u.createdAt) FROM User u ";
     
-    @Query("SELECT u FROM User u WHERE u.fullName LIKE %:name% OR u.username LIKE %:name%")
-    List<User> findByNameContaining(@Param("name") String name);
+    // Read from a cursor; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = QueryHintValues.STREAM_FETCH_SIZE))
+    @Query(SUMMARY_SELECT + "ORDER BY u.id")
+    Stream<UserSummary> streamAllSummaries();
+    
+    @Query(SUMMARY_SELECT + "WHERE u.role = :role ORDER BY u.id")
+    List<UserSummary> findSummariesByRole(@Param("role") Role role);
+    
+    @Query(SUMMARY_SELECT + "WHERE u.id IN :ids")
+    List<UserSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query(SUMMARY_SELECT + "WHERE u.role = :role AND u.username LIKE %:search%")
+    List<UserSummary> findVolunteersBySearch(@Param("role") Role role, @Param("search") String search);
+    
+    @Query(SUMMARY_SELECT + "WHERE u.fullName LIKE %:name% OR u.username LIKE %:name%")
+    List<UserSummary> findByNameContaining(@Param("name") String name);
 }
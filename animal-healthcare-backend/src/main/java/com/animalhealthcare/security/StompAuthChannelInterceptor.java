@@ -0,0 +1,88 @@
+package com.animalhealthcare.security;
+
+import com.animalhealthcare.repository.ChatRoomRepository;
+import com.animalhealthcare.service.ChatMessagePublisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.security.Principal;
+
+// Authenticates STOMP sessions with the same JWT as the REST API. Browsers cannot set headers on the
+// WebSocket handshake, so the token travels in the Authorization header of the CONNECT frame and the
+// resulting user is attached to the session for every later frame.
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private ChatRoomRepository chatRoomRepository;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        switch (accessor.getCommand()) {
+            case CONNECT -> accessor.setUser(authenticate(accessor));
+            case SUBSCRIBE -> checkSubscription(accessor.getUser(), accessor.getDestination());
+            // Room topics are written by the server only; a client frame there would reach every subscriber
+            case SEND -> throw new RuntimeException("Sending over the socket is not supported, use the REST API");
+            default -> { }
+        }
+        return message;
+    }
+
+    private UsernamePasswordAuthenticationToken authenticate(StompHeaderAccessor accessor) {
+        String headerAuth = accessor.getFirstNativeHeader("Authorization");
+        if (!StringUtils.hasText(headerAuth) || !headerAuth.startsWith("Bearer ")) {
+            throw new RuntimeException("Missing bearer token");
+        }
+
+        String jwt = headerAuth.substring(7);
+        if (!jwtUtils.validateJwtToken(jwt)) {
+            throw new RuntimeException("Invalid or expired token");
+        }
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername(jwtUtils.getUsernameFromJwtToken(jwt));
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    // Room participants may follow their room; volunteers and admins may follow any room, as on the REST side
+    private void checkSubscription(Principal user, String destination) {
+        if (!(user instanceof UsernamePasswordAuthenticationToken authentication)
+                || !(authentication.getPrincipal() instanceof UserPrincipal userPrincipal)) {
+            throw new RuntimeException("Not authenticated");
+        }
+        if (destination == null || !destination.startsWith(ChatMessagePublisher.ROOM_TOPIC_PREFIX)) {
+            throw new RuntimeException("Unknown destination: " + destination);
+        }
+
+        Long chatRoomId;
+        try {
+            chatRoomId = Long.valueOf(destination.substring(ChatMessagePublisher.ROOM_TOPIC_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Unknown destination: " + destination);
+        }
+
+        boolean staff = userPrincipal.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_VOLUNTEER") || a.getAuthority().equals("ROLE_ADMIN"));
+        if (!staff && !chatRoomRepository.isParticipant(chatRoomId, userPrincipal.getId())) {
+            throw new RuntimeException("Not a participant of chat room " + chatRoomId);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.animalhealthcare.service;
+
+import com.animalhealthcare.dto.ChatMessageSummary;
+import com.animalhealthcare.dto.UserSummary;
+import com.animalhealthcare.entity.MessageType;
+import com.animalhealthcare.entity.Role;
+import com.animalhealthcare.entity.SenderType;
+import com.animalhealthcare.exception.ChatBusyException;
+import com.animalhealthcare.repository.ChatMessageBatchWriter;
+import com.animalhealthcare.repository.ChatRoomRepository;
+import com.animalhealthcare.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Write path for chat messages. Senders queue their message and wait; a single writer thread takes
+// everything queued so far and stores it as one group commit: one lookup of the senders, one of the
+// rooms, one multi-row insert and one update of the rooms' last activity, whatever the batch size.
+// Busy rooms therefore cost a few statements per batch instead of four per message, and hold one
+// connection instead of one per sender. Messages are inserted in queue order by a single thread,
+// so ids, and the order subscribers see, follow the order of submission within every room.
+@Component
+public class ChatIngestPipeline {
+
+    private static final Logger logger = Logger.getLogger(ChatIngestPipeline.class.getName());
+
+    @Autowired
+    private ChatMessageBatchWriter batchWriter;
+
+    @Autowired
+    private ChatRoomRepository chatRoomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ChatMessagePublisher chatMessagePublisher;
+
+    @Autowired
+    private ChatUnreadCounters unreadCounters;
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.chat.ingest.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${app.chat.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.chat.ingest.submit-timeout-ms:10000}")
+    private long submitTimeoutMs;
+
+    private TransactionTemplate transactionTemplate;
+
+    private BlockingQueue<PendingMessage> queue;
+
+    private volatile boolean running = true;
+    private Thread writerThread;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        writerThread = new Thread(this::writeLoop, "chat-ingest-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    // Blocks until the message is stored, then returns it with its id. Waits at most submit-timeout-ms;
+    // a message still queued by then is withdrawn, so a timed-out send can be retried without duplicating.
+    public ChatMessageSummary submit(Long chatRoomId, Long senderId, String message) {
+        PendingMessage pending = new PendingMessage(chatRoomId, senderId, message, MessageType.TEXT, null,
+                new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            throw new ChatBusyException("Chat is busy, please try again");
+        }
+        try {
+            return pending.done().get(submitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while sending message");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ChatBusyException busy) {
+                throw busy;
+            }
+            throw new RuntimeException(e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            if (pending.done().cancel(false)) {
+                throw new ChatBusyException("Chat is busy, please try again");
+            }
+            // Stored (or rejected) just as the wait ran out
+            return pending.done().join();
+        }
+    }
+
+    // Queue a message without waiting for it, once the caller's transaction has committed. Used for
+    // system messages, which must go through the writer like any other so ids keep submission order.
+    public void post(Long chatRoomId, Long senderId, String message, MessageType messageType, SenderType senderType) {
+        PendingMessage pending = new PendingMessage(chatRoomId, senderId, message, messageType, senderType,
+                new CompletableFuture<>());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(pending);
+                }
+            });
+        } else {
+            enqueue(pending);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+            try {
+                writerThread.join(submitTimeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Only now is nothing taking from the queue, so whatever is left will never be written
+        List<PendingMessage> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.forEach(pending -> pending.done().completeExceptionally(new ChatBusyException("Chat is shutting down")));
+    }
+
+    private void enqueue(PendingMessage pending) {
+        if (!running || !queue.offer(pending)) {
+            logger.warning("Chat is busy, dropped " + pending.messageType() + " message for chat room " + pending.chatRoomId());
+            return;
+        }
+        pending.done().whenComplete((stored, e) -> {
+            if (e != null) {
+                logger.warning("Could not store " + pending.messageType() + " message for chat room "
+                        + pending.chatRoomId() + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private void writeLoop() {
+        List<PendingMessage> batch = new ArrayList<>();
+        try {
+            while (running) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    return;
+                }
+                queue.drainTo(batch, maxBatchSize - 1);
+                try {
+                    commit(batch);
+                } catch (Exception e) {
+                    logger.log(Level.WARNING, "Chat batch of " + batch.size() + " messages failed", e);
+                    batch.forEach(pending -> pending.done().completeExceptionally(e));
+                } finally {
+                    // Anything commit left open (an Error escaped it) fails now instead of waiting out its sender;
+                    // completing an already completed future is a no-op
+                    RuntimeException unfinished = new RuntimeException("Message could not be stored");
+                    batch.forEach(pending -> pending.done().completeExceptionally(unfinished));
+                    batch.clear();
+                }
+            }
+        } finally {
+            // Whether stopped or killed, nothing takes from the queue any more: turn new senders away
+            running = false;
+        }
+    }
+
+    private void commit(List<PendingMessage> batch) {
+        Set<Long> senderIds = new HashSet<>();
+        Set<Long> roomIds = new HashSet<>();
+        for (PendingMessage pending : batch) {
+            senderIds.add(pending.senderId());
+            roomIds.add(pending.chatRoomId());
+        }
+        Map<Long, UserSummary> senders = new HashMap<>();
+        for (UserSummary sender : userRepository.findSummariesByIdIn(senderIds)) {
+            senders.put(sender.getId(), sender);
+        }
+        Set<Long> rooms = new HashSet<>(chatRoomRepository.findExistingIds(roomIds));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingMessage> accepted = new ArrayList<>(batch.size());
+        List<ChatMessageSummary> rows = new ArrayList<>(batch.size());
+        for (PendingMessage pending : batch) {
+            UserSummary sender = senders.get(pending.senderId());
+            if (pending.done().isDone()) {
+                // The sender timed out and withdrew it
+                continue;
+            } else if (!rooms.contains(pending.chatRoomId())) {
+                pending.done().completeExceptionally(new RuntimeException("Chat room not found"));
+            } else if (sender == null) {
+                pending.done().completeExceptionally(new RuntimeException("Sender not found"));
+            } else {
+                accepted.add(pending);
+                rows.add(new ChatMessageSummary(null, pending.chatRoomId(), sender.getId(), sender.getFullName(),
+                        pending.senderType() != null ? pending.senderType() : senderType(sender.getRole()),
+                        pending.message(), pending.messageType(), null, null, null, now, null));
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<ChatMessageSummary> stored;
+        try {
+            stored = store(rows, now);
+        } catch (DataIntegrityViolationException e) {
+            // One bad row must not fail the others; store them one by one
+            for (int i = 0; i < rows.size(); i++) {
+                try {
+                    accepted.get(i).done().complete(store(List.of(rows.get(i)), now).get(0));
+                } catch (Exception rejected) {
+                    accepted.get(i).done().completeExceptionally(
+                            new RuntimeException("Message rejected by the database: " + rejected.getMessage()));
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < stored.size(); i++) {
+            accepted.get(i).done().complete(stored.get(i));
+        }
+    }
+
+    // Inserts the rows in one transaction. The follow-ups are registered inside it, so they run only
+    // once it has committed, and the unread counters see the change as pending until then.
+    private List<ChatMessageSummary> store(List<ChatMessageSummary> rows, LocalDateTime now) {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = batchWriter.insertAll(rows, now);
+            List<ChatMessageSummary> stored = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                ChatMessageSummary message = withId(rows.get(i), ids.get(i));
+                chatMessagePublisher.publish(message);
+                unreadCounters.messageSent(message.getChatRoomId(), message.getSenderId());
+                stored.add(message);
+            }
+            // The rooms' last activity moved, which reorders the room lists
+            collectionVersions.bump(CollectionVersions.Collection.CHAT_ROOMS);
+            return stored;
+        });
+    }
+
+    private static SenderType senderType(Role role) {
+        if (role == Role.VOLUNTEER) {
+            return SenderType.VOLUNTEER;
+        } else if (role == Role.ADMIN) {
+            return SenderType.ADMIN;
+        }
+        return SenderType.USER;
+    }
+
+    private static ChatMessageSummary withId(ChatMessageSummary row, Long id) {
+        return new ChatMessageSummary(id, row.getChatRoomId(), row.getSenderId(), row.getSenderName(),
+                row.getSenderType(), row.getMessage(), row.getMessageType(), row.getFileUrl(), row.getFileName(),
+                row.getFileSize(), row.getCreatedAt(), row.getEditedAt());
+    }
+
+    private record PendingMessage(Long chatRoomId, Long senderId, String message, MessageType messageType,
+                                  SenderType senderType, CompletableFuture<ChatMessageSummary> done) {}
+}
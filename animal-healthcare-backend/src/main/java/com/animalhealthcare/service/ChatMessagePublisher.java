@@ -0,0 +1,50 @@
+package com.animalhealthcare.service;
+
+import com.animalhealthcare.dto.ChatMessageSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.logging.Logger;
+
+// Pushes saved chat messages to the STOMP subscribers of their room, so clients no longer poll
+// the messages endpoint. Inside a transaction the push waits for the commit: a rolled-back message
+// is never delivered, and a client that reacts by reading the room always finds it stored.
+@Component
+public class ChatMessagePublisher {
+
+    private static final Logger logger = Logger.getLogger(ChatMessagePublisher.class.getName());
+
+    public static final String ROOM_TOPIC_PREFIX = "/topic/chat/room/";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    public static String roomTopic(Long chatRoomId) {
+        return ROOM_TOPIC_PREFIX + chatRoomId;
+    }
+
+    public void publish(ChatMessageSummary message) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(message);
+                }
+            });
+        } else {
+            send(message);
+        }
+    }
+
+    // The message is already stored; a failed push only costs live delivery, not the message
+    private void send(ChatMessageSummary message) {
+        try {
+            messagingTemplate.convertAndSend(roomTopic(message.getChatRoomId()), message);
+        } catch (Exception e) {
+            logger.warning("Could not push chat message " + message.getId() + ": " + e.getMessage());
+        }
+    }
+}
@@ -1,35 +1,62 @@
 package com.animalhealthcare.service;
 
+import com.animalhealthcare.dto.ChatInboxEntry;
+import com.animalhealthcare.dto.ChatMessageSummary;
+import com.animalhealthcare.dto.ChatRoomSummary;
+import com.animalhealthcare.dto.CursorPage;
 import com.animalhealthcare.entity.*;
 import com.animalhealthcare.repository.ChatMessageRepository;
+import com.animalhealthcare.repository.ChatParticipantRepository;
 import com.animalhealthcare.repository.ChatRoomRepository;
 import com.animalhealthcare.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class ChatService {
     
+    private static final int DEFAULT_HISTORY_LIMIT = 50;
+    private static final int MAX_HISTORY_LIMIT = 200;
+    
     @Autowired
     private ChatRoomRepository chatRoomRepository;
     
     @Autowired
     private ChatMessageRepository chatMessageRepository;
     
+    @Autowired
+    private ChatParticipantRepository chatParticipantRepository;
+    
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private CollectionVersions collectionVersions;
+    
+    @Autowired
+    private ChatUnreadCounters unreadCounters;
+    
+    @Autowired
+    private ChatIngestPipeline chatIngestPipeline;
+    
     // Create or get chat room for emergency request
-    public ChatRoom createOrGetChatRoom(String emergencyRequestId, Long userId) {
-        Optional<ChatRoom> existingRoom = chatRoomRepository.findByEmergencyRequestId(emergencyRequestId);
+    public ChatRoomSummary createOrGetChatRoom(String emergencyRequestId, Long userId) {
+        Optional<ChatRoomSummary> existingRoom = chatRoomRepository.findSummaryByEmergencyRequestId(emergencyRequestId);
         
         if (existingRoom.isPresent()) {
             return existingRoom.get();
@@ -39,11 +66,12 @@ public class ChatService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         ChatRoom chatRoom = new ChatRoom(emergencyRequestId, user);
-        return chatRoomRepository.save(chatRoom);
+        collectionVersions.bump(CollectionVersions.Collection.CHAT_ROOMS);
+        return ChatRoomSummary.of(chatRoomRepository.save(chatRoom));
     }
     
     // Assign volunteer to chat room
-    public ChatRoom assignVolunteer(Long chatRoomId, Long volunteerId) {
+    public ChatRoomSummary assignVolunteer(Long chatRoomId, Long volunteerId) {
         ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
                 .orElseThrow(() -> new RuntimeException("Chat room not found"));
         
@@ -57,114 +85,164 @@ public class ChatService {
         chatRoom.setVolunteer(volunteer);
         chatRoom.setUpdatedAt(LocalDateTime.now());
         
-        // Send system message about volunteer assignment
-        ChatMessage systemMessage = new ChatMessage(
-            chatRoom, 
-            volunteer, 
-            "Volunteer " + volunteer.getFullName() + " has joined the chat.", 
-            SenderType.SYSTEM
-        );
-        systemMessage.setMessageType(MessageType.SYSTEM);
-        chatMessageRepository.save(systemMessage);
+        // Send system message about volunteer assignment. It goes through the ingest writer like every
+        // other message, after this commit, so its id never lands behind one a client has already seen.
+        chatIngestPipeline.post(chatRoomId, volunteerId,
+                "Volunteer " + volunteer.getFullName() + " has joined the chat.",
+                MessageType.SYSTEM, SenderType.SYSTEM);
         
-        return chatRoomRepository.save(chatRoom);
+        collectionVersions.bump(CollectionVersions.Collection.CHAT_ROOMS);
+        return ChatRoomSummary.of(chatRoomRepository.save(chatRoom));
     }
     
-    // Send message
-    public ChatMessage sendMessage(Long chatRoomId, Long senderId, String message) {
-        ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
-                .orElseThrow(() -> new RuntimeException("Chat room not found"));
-        
-        User sender = userRepository.findById(senderId)
-                .orElseThrow(() -> new RuntimeException("Sender not found"));
-        
-        // Determine sender type
-        SenderType senderType = SenderType.USER;
-        if (sender.getRole() == Role.VOLUNTEER) {
-            senderType = SenderType.VOLUNTEER;
-        } else if (sender.getRole() == Role.ADMIN) {
-            senderType = SenderType.ADMIN;
-        }
-        
-        ChatMessage chatMessage = new ChatMessage(chatRoom, sender, message, senderType);
-        chatMessage.setMessageType(MessageType.TEXT);
-        
-        // Update chat room's last activity
-        chatRoom.setUpdatedAt(LocalDateTime.now());
-        chatRoomRepository.save(chatRoom);
-        
-        return chatMessageRepository.save(chatMessage);
-    }
-    
-    // Get chat room by ID
-    public Optional<ChatRoom> getChatRoom(Long chatRoomId) {
-        return chatRoomRepository.findById(chatRoomId);
+    // Send message; it is stored with the next group commit of the ingest pipeline. No transaction
+    // here, so a waiting sender does not hold a pooled connection.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ChatMessageSummary sendMessage(Long chatRoomId, Long senderId, String message) {
+        return chatIngestPipeline.submit(chatRoomId, senderId, message);
     }
     
     // Get chat room by emergency request ID
-    public Optional<ChatRoom> getChatRoomByEmergencyId(String emergencyRequestId) {
-        return chatRoomRepository.findByEmergencyRequestId(emergencyRequestId);
+    @Transactional(readOnly = true)
+    public Optional<ChatRoomSummary> getChatRoomByEmergencyId(String emergencyRequestId) {
+        return chatRoomRepository.findSummaryByEmergencyRequestId(emergencyRequestId);
     }
     
     // Get user's chat rooms
-    public List<ChatRoom> getUserChatRooms(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    @Transactional(readOnly = true)
+    public List<ChatRoomSummary> getUserChatRooms(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
         
-        return chatRoomRepository.findByUserOrVolunteer(user);
+        return chatRoomRepository.findSummariesByParticipant(userId);
     }
     
-    // Get messages for a chat room
-    public List<ChatMessage> getChatMessages(Long chatRoomId) {
-        ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
-                .orElseThrow(() -> new RuntimeException("Chat room not found"));
-        
-        return chatMessageRepository.findByChatRoomOrderByCreatedAtAsc(chatRoom);
+    @Transactional(readOnly = true)
+    public void checkChatRoomExists(Long chatRoomId) {
+        if (!chatRoomRepository.existsById(chatRoomId)) {
+            throw new RuntimeException("Chat room not found");
+        }
+    }
+    
+    // Whole transcript as a cursor-backed stream; the caller must consume it inside a transaction
+    @Transactional(readOnly = true)
+    public Stream<ChatMessageSummary> streamChatMessages(Long chatRoomId) {
+        return chatMessageRepository.streamSummariesByChatRoomId(chatRoomId);
     }
     
     // Get messages with pagination
-    public Page<ChatMessage> getChatMessages(Long chatRoomId, Pageable pageable) {
-        ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
-                .orElseThrow(() -> new RuntimeException("Chat room not found"));
+    @Transactional(readOnly = true)
+    public Page<ChatMessageSummary> getChatMessages(Long chatRoomId, Pageable pageable) {
+        if (!chatRoomRepository.existsById(chatRoomId)) {
+            throw new RuntimeException("Chat room not found");
+        }
         
-        return chatMessageRepository.findByChatRoomOrderByCreatedAtDesc(chatRoom, pageable);
+        return chatMessageRepository.findSummaryPageByChatRoomId(chatRoomId, pageable);
     }
     
-    // Mark messages as read
-    public int markMessagesAsRead(Long chatRoomId, Long userId) {
-        ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
-                .orElseThrow(() -> new RuntimeException("Chat room not found"));
+    // Messages older than before, newest first; scrolling back passes the last id as the next before
+    @Transactional(readOnly = true)
+    public CursorPage<ChatMessageSummary> getChatMessagesBefore(Long chatRoomId, Long before, int limit) {
+        long position = before != null ? before : Long.MAX_VALUE;
+        return historyPage(chatRoomId, limit, pageLimit ->
+                chatMessageRepository.findSummariesBefore(chatRoomId, position, pageLimit));
+    }
+    
+    // Messages newer than after, oldest first; catching up passes the last id as the next after
+    @Transactional(readOnly = true)
+    public CursorPage<ChatMessageSummary> getChatMessagesAfter(Long chatRoomId, Long after, int limit) {
+        return historyPage(chatRoomId, limit, pageLimit ->
+                chatMessageRepository.findSummariesAfter(chatRoomId, after, pageLimit));
+    }
+    
+    private CursorPage<ChatMessageSummary> historyPage(Long chatRoomId, int limit,
+                                                       Function<Limit, List<ChatMessageSummary>> query) {
+        int pageSize = limit <= 0 ? DEFAULT_HISTORY_LIMIT : Math.min(limit, MAX_HISTORY_LIMIT);
+        List<ChatMessageSummary> items = query.apply(Limit.of(pageSize));
+        
+        // Only an empty page needs to tell a missing room from the end of the history
+        if (items.isEmpty()) {
+            checkChatRoomExists(chatRoomId);
+        }
         
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // A full page means there may be more messages past the last one
+        String nextCursor = items.size() == pageSize ? items.get(items.size() - 1).getId().toString() : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+    
+    // Mark messages as read up to the given message (the newest one when null) by moving the user's
+    // read watermark; returns the id now marked read, or null when the room has no messages yet
+    public Long markMessagesAsRead(Long chatRoomId, Long userId, Long upToMessageId) {
+        Long lastReadMessageId = chatMessageRepository.findLatestMessageId(chatRoomId,
+                upToMessageId != null ? upToMessageId : Long.MAX_VALUE);
+        
+        if (lastReadMessageId == null) {
+            checkChatRoomExists(chatRoomId);
+            return null;
+        }
         
-        return chatMessageRepository.markMessagesAsRead(chatRoom, user);
+        chatParticipantRepository.advanceReadWatermark(chatRoomId, userId, lastReadMessageId);
+        unreadCounters.messagesRead(chatRoomId, userId);
+        return lastReadMessageId;
     }
     
-    // Count unread messages
+    // Count unread messages; the database is only asked when the count is not cached
+    @Transactional(readOnly = true)
     public long countUnreadMessages(Long chatRoomId, Long userId) {
-        ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
-                .orElseThrow(() -> new RuntimeException("Chat room not found"));
-        
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return unreadCounters.unreadCounts(userId, List.of(chatRoomId), missing -> {
+            checkChatRoomExists(chatRoomId);
+            return Map.of(chatRoomId, chatMessageRepository.countUnreadMessages(chatRoomId, userId));
+        }).get(chatRoomId);
+    }
+    
+    // The user's rooms, most recently active first, each with its newest message and unread count.
+    // Three queries at most, whatever the number of rooms, and two once the counts are cached.
+    @Transactional(readOnly = true)
+    public List<ChatInboxEntry> getInbox(Long userId) {
+        List<ChatRoomSummary> rooms = chatRoomRepository.findSummariesByParticipant(userId);
+        if (rooms.isEmpty()) {
+            return List.of();
+        }
         
-        return chatMessageRepository.countUnreadMessages(chatRoom, user);
+        List<Long> roomIds = rooms.stream().map(ChatRoomSummary::getId).toList();
+        Map<Long, ChatMessageSummary> lastMessages = new HashMap<>();
+        for (ChatMessageSummary message : chatMessageRepository.findLatestSummariesByChatRoomIds(roomIds)) {
+            lastMessages.put(message.getChatRoomId(), message);
+        }
+        Map<Long, Long> unreadCounts = unreadCounters.unreadCounts(userId, roomIds, missing -> {
+            // The rooms were just listed, so each exists; those without unread messages count zero
+            Map<Long, Long> counts = new HashMap<>();
+            missing.forEach(chatRoomId -> counts.put(chatRoomId, 0L));
+            for (Object[] row : chatMessageRepository.countUnreadMessagesByRoom(missing, userId)) {
+                counts.put((Long) row[0], (Long) row[1]);
+            }
+            return counts;
+        });
+        
+        List<ChatInboxEntry> inbox = new ArrayList<>(rooms.size());
+        for (ChatRoomSummary room : rooms) {
+            inbox.add(new ChatInboxEntry(room, lastMessages.get(room.getId()), unreadCounts.get(room.getId())));
+        }
+        return inbox;
     }
     
     // Close chat room
-    public ChatRoom closeChatRoom(Long chatRoomId) {
+    public ChatRoomSummary closeChatRoom(Long chatRoomId) {
         ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
                 .orElseThrow(() -> new RuntimeException("Chat room not found"));
         
         chatRoom.setStatus(ChatStatus.CLOSED);
         chatRoom.setUpdatedAt(LocalDateTime.now());
         
-        return chatRoomRepository.save(chatRoom);
+        unreadCounters.roomClosed(chatRoomId);
+        collectionVersions.bump(CollectionVersions.Collection.CHAT_ROOMS);
+        return ChatRoomSummary.of(chatRoomRepository.save(chatRoom));
     }
     
     // Get active chat rooms (for admin/volunteer view)
-    public List<ChatRoom> getActiveChatRooms() {
-        return chatRoomRepository.findActiveChatRooms();
+    @Transactional(readOnly = true)
+    public List<ChatRoomSummary> getActiveChatRooms() {
+        return chatRoomRepository.findSummariesByStatus(ChatStatus.ACTIVE);
     }
 }
@@ -0,0 +1,186 @@
+package com.animalhealthcare.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Unread message counts per room and user, kept in memory so the inbox does not run a count query
+// per room on every load. A count is loaded from the database the first time it is asked for and
+// from then on moved by the chat service: new messages increment it for everyone but the sender,
+// marking the room read drops it so the next read reloads it.
+//
+// A load that overlaps a change of the same room could count a message twice or miss it, so such a
+// load is returned to the caller but not cached. Changes are marked pending while their transaction
+// runs and applied after it commits, which is what lets a load tell whether one overlapped it.
+//
+// Only rooms whose counts are asked for get an entry, and only once the loader has confirmed the room
+// exists. Changes to rooms without one are tracked by a shared counter, which is coarser but enough
+// for a load to tell it was overlapped. Entries are dropped when their room is closed or has not been
+// used for IDLE_TTL; the next read loads them again.
+@Component
+public class ChatUnreadCounters {
+
+    private static final long IDLE_TTL_NANOS = TimeUnit.MINUTES.toNanos(30);
+
+    private static final class Room {
+        final AtomicLong version = new AtomicLong();
+        final AtomicInteger pending = new AtomicInteger();
+        final Map<Long, AtomicLong> unread = new ConcurrentHashMap<>();
+        volatile long lastUsed = System.nanoTime();
+    }
+
+    private final Map<Long, Room> rooms = new ConcurrentHashMap<>();
+
+    // Changes to rooms that have no entry
+    private final AtomicLong untrackedVersion = new AtomicLong();
+    private final AtomicInteger untrackedPending = new AtomicInteger();
+
+    public void messageSent(Long chatRoomId, Long senderId) {
+        change(chatRoomId, room -> room.unread.forEach((userId, count) -> {
+            if (!userId.equals(senderId)) {
+                count.incrementAndGet();
+            }
+        }));
+    }
+
+    public void messagesRead(Long chatRoomId, Long userId) {
+        change(chatRoomId, room -> room.unread.remove(userId));
+    }
+
+    public void roomClosed(Long chatRoomId) {
+        evictIf(chatRoomId, room -> true);
+    }
+
+    @Scheduled(fixedRate = 300000)
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (Long chatRoomId : rooms.keySet()) {
+            evictIf(chatRoomId, room -> now - room.lastUsed > IDLE_TTL_NANOS);
+        }
+    }
+
+    // Unread counts of the user for each room; rooms not cached yet are loaded with one call to loader.
+    // The loader returns a count for every room it is given that exists (zero included); a room it
+    // leaves out counts as zero and is not cached.
+    public Map<Long, Long> unreadCounts(Long userId, Collection<Long> chatRoomIds,
+                                        Function<Collection<Long>, Map<Long, Long>> loader) {
+        Map<Long, Long> counts = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        Map<Long, Room> loadedFrom = new HashMap<>();
+        Map<Long, Long> versions = new HashMap<>();
+        for (Long chatRoomId : chatRoomIds) {
+            Room room = rooms.get(chatRoomId);
+            AtomicLong count = room != null ? room.unread.get(userId) : null;
+            if (room != null) {
+                room.lastUsed = System.nanoTime();
+            }
+            if (count != null) {
+                counts.put(chatRoomId, count.get());
+            } else {
+                missing.add(chatRoomId);
+                if (room != null) {
+                    loadedFrom.put(chatRoomId, room);
+                }
+                versions.put(chatRoomId, room != null ? room.version.get() : untrackedVersion.get());
+            }
+        }
+        if (missing.isEmpty()) {
+            return counts;
+        }
+
+        Map<Long, Long> loaded = loader.apply(missing);
+        for (Long chatRoomId : missing) {
+            Long value = loaded.get(chatRoomId);
+            counts.put(chatRoomId, value != null ? value : 0L);
+            if (value != null) {
+                cache(chatRoomId, userId, value, loadedFrom.get(chatRoomId), versions.get(chatRoomId));
+            }
+        }
+        return counts;
+    }
+
+    private void cache(Long chatRoomId, Long userId, long value, Room loadedFrom, long versionBefore) {
+        Room room;
+        long version;
+        if (loadedFrom != null) {
+            room = loadedFrom;
+            version = versionBefore;
+        } else {
+            // Created under the room's map lock, which change() also takes, so no change to this room
+            // can be between registering as untracked and showing up in the shared counters
+            Room created = new Room();
+            room = rooms.compute(chatRoomId, (id, existing) -> existing == null && untrackedPending.get() == 0
+                    && untrackedVersion.get() == versionBefore ? created : existing);
+            if (room != created) {
+                return;
+            }
+            version = 0;
+        }
+
+        AtomicLong count = new AtomicLong(value);
+        if (room.unread.putIfAbsent(userId, count) == null
+                && (room.pending.get() > 0 || room.version.get() != version || rooms.get(chatRoomId) != room)) {
+            // A change ran while loading; it may or may not be part of the loaded value
+            room.unread.remove(userId, count);
+        }
+    }
+
+    private void change(Long chatRoomId, Consumer<Room> apply) {
+        Room room = rooms.compute(chatRoomId, (id, existing) -> {
+            if (existing != null) {
+                existing.pending.incrementAndGet();
+                existing.lastUsed = System.nanoTime();
+            } else {
+                untrackedPending.incrementAndGet();
+            }
+            return existing;
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    finish(room, status == STATUS_COMMITTED ? apply : null);
+                }
+            });
+        } else {
+            finish(room, apply);
+        }
+    }
+
+    private void finish(Room room, Consumer<Room> apply) {
+        if (room == null) {
+            if (apply != null) {
+                untrackedVersion.incrementAndGet();
+            }
+            untrackedPending.decrementAndGet();
+            return;
+        }
+        try {
+            if (apply != null) {
+                room.version.incrementAndGet();
+                apply.accept(room);
+            }
+        } finally {
+            room.pending.decrementAndGet();
+        }
+    }
+
+    // A room with a change in flight is kept, so the change is not applied to an entry nobody reads
+    private void evictIf(Long chatRoomId, Predicate<Room> condition) {
+        rooms.computeIfPresent(chatRoomId, (id, room) -> room.pending.get() == 0 && condition.test(room) ? null : room);
+    }
+}
@@ -0,0 +1,57 @@
+package com.animalhealthcare.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// One version counter per collection, bumped by the service layer on every write, so read endpoints
+// can build a strong ETag without loading or serializing anything. Versions start from the boot time,
+// so a restart never reissues a tag that a client may still hold.
+@Component
+public class CollectionVersions {
+
+    public enum Collection {
+        EMERGENCY_REQUESTS,
+        CHAT_ROOMS,
+        USERS
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Collection, AtomicLong> versions = new EnumMap<>(Collection.class);
+
+    public CollectionVersions() {
+        for (Collection collection : Collection.values()) {
+            versions.put(collection, new AtomicLong());
+        }
+    }
+
+    // Inside a transaction the bump waits for the commit, so a reader can never see the new version
+    // together with the old data and cache that pairing
+    public void bump(Collection collection) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.get(collection).incrementAndGet();
+                }
+            });
+        } else {
+            versions.get(collection).incrementAndGet();
+        }
+    }
+
+    // Strong ETag over the given collections; variant must distinguish every representation the
+    // endpoint can produce from the same data (query parameters, the caller for per-user views)
+    public String etag(String variant, Collection... collections) {
+        StringBuilder tag = new StringBuilder("\"").append(epoch);
+        for (Collection collection : collections) {
+            tag.append('-').append(versions.get(collection).get());
+        }
+        return tag.append('-').append(variant).append('"').toString();
+    }
+}
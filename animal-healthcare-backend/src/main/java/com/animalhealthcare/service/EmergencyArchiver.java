@@ -0,0 +1,90 @@
+package com.animalhealthcare.service;
+
+import com.animalhealthcare.repository.EmergencyArchiveRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.logging.Logger;
+
+// Moves completed emergency requests older than app.archive.after-days into the archive table.
+// Each chunk is its own short transaction with a pause in between, so live traffic on
+// emergency_requests never waits long on the archiver's locks. Depends on the entity manager
+// factory so Hibernate has brought emergency_requests up to date before the two layouts are compared;
+// while they differ nothing is archived, since the move would drop the columns the archive lacks.
+@Component
+@DependsOn("entityManagerFactory")
+public class EmergencyArchiver {
+
+    private static final Logger logger = Logger.getLogger(EmergencyArchiver.class.getName());
+
+    @Autowired
+    private EmergencyArchiveRepository archiveRepository;
+
+    @Autowired
+    private EmergencySearchIndex searchIndex;
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    @Value("${app.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.archive.after-days:30}")
+    private int afterDays;
+
+    @Value("${app.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.archive.pause-ms:200}")
+    private long pauseMs;
+
+    private volatile boolean schemaMatches;
+
+    @PostConstruct
+    public void createArchiveTable() {
+        archiveRepository.createTableIfMissing();
+        List<String> differences = archiveRepository.findSchemaDifferences();
+        schemaMatches = differences.isEmpty();
+        if (!schemaMatches) {
+            logger.severe("Archiving disabled: emergency_requests and emergency_requests_archive differ in "
+                    + differences + "; update db/migration/emergency_archive.sql and alter the archive table");
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.archive.initial-delay-ms:60000}",
+               fixedDelayString = "${app.archive.interval-ms:3600000}")
+    public void archiveCompleted() {
+        if (!enabled || !schemaMatches) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        int archived = 0;
+        while (true) {
+            List<String> ids = archiveRepository.findArchivableIds(cutoff, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            archived += archiveRepository.moveToArchive(ids);
+            ids.forEach(searchIndex::remove);
+            if (ids.size() < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (archived > 0) {
+            collectionVersions.bump(CollectionVersions.Collection.EMERGENCY_REQUESTS);
+            logger.info("Archived " + archived + " completed emergency requests");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.animalhealthcare.service;
+
+import com.animalhealthcare.entity.EmergencyRequest;
+import com.animalhealthcare.entity.Status;
+import com.animalhealthcare.repository.EmergencyRequestRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.logging.Logger;
+
+// In-memory priority queue of pending emergency requests.
+// Ordered by real urgency (CRITICAL first, using the enum declaration order) and then by age,
+// so /emergency/pending can be served without a database round trip.
+@Component
+public class EmergencyDispatchQueue implements ApplicationRunner {
+
+    private static final Logger logger = Logger.getLogger(EmergencyDispatchQueue.class.getName());
+
+    private static final Comparator<QueueKey> PRIORITY_ORDER = Comparator
+            .comparingInt(QueueKey::urgencyRank)
+            .thenComparing(QueueKey::createdAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(QueueKey::id);
+
+    @Autowired
+    private EmergencyRequestRepository emergencyRequestRepository;
+
+    private final ConcurrentSkipListMap<QueueKey, EmergencyRequest> queue = new ConcurrentSkipListMap<>(PRIORITY_ORDER);
+
+    private final ConcurrentHashMap<String, QueueKey> keysById = new ConcurrentHashMap<>();
+
+    // Rebuild the queue from the database once the application has started
+    @Override
+    public void run(ApplicationArguments args) {
+        List<EmergencyRequest> pending = emergencyRequestRepository.findByStatus(Status.PENDING);
+        pending.forEach(this::upsert);
+        logger.info("Dispatch queue rebuilt with " + queue.size() + " pending requests");
+    }
+
+    // Add, reorder or drop a request depending on its current state
+    public void upsert(EmergencyRequest request) {
+        keysById.compute(request.getId(), (id, existingKey) -> {
+            if (existingKey != null) {
+                queue.remove(existingKey);
+            }
+            // Duplicate reports are linked to their incident instead of being dispatched again
+            if (request.getStatus() != Status.PENDING || request.getDuplicateOf() != null) {
+                return null;
+            }
+            QueueKey key = QueueKey.of(request);
+            queue.put(key, request);
+            return key;
+        });
+    }
+
+    public void remove(String requestId) {
+        keysById.computeIfPresent(requestId, (id, existingKey) -> {
+            queue.remove(existingKey);
+            return null;
+        });
+    }
+
+    // Highest priority pending requests, most urgent and oldest first
+    public List<EmergencyRequest> top(int limit) {
+        return queue.values().stream().limit(Math.max(limit, 0)).toList();
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    private record QueueKey(int urgencyRank, LocalDateTime createdAt, String id) {
+
+        static QueueKey of(EmergencyRequest request) {
+            int rank = request.getUrgency() != null ? request.getUrgency().ordinal() : Integer.MAX_VALUE;
+            return new QueueKey(rank, request.getCreatedAt(), request.getId());
+        }
+    }
+}
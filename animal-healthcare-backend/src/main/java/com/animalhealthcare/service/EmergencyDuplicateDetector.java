@@ -0,0 +1,294 @@
+package com.animalhealthcare.service;
+
+import com.animalhealthcare.entity.EmergencyRequest;
+import com.animalhealthcare.entity.Status;
+import com.animalhealthcare.repository.EmergencyRequestRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.logging.Logger;
+
+// Finds reports that describe an incident already reported in the recent past.
+// Each report is reduced to a MinHash signature over word shingles of its animal type, location
+// and description; locality-sensitive hashing on bands of the signature finds candidates without
+// comparing against every report. Only reports from a sliding time window are kept, capped at a
+// fixed number of entries, so memory stays bounded during an incident surge.
+@Component
+public class EmergencyDuplicateDetector implements ApplicationRunner {
+
+    private static final Logger logger = Logger.getLogger(EmergencyDuplicateDetector.class.getName());
+
+    // 16 bands of 4 rows: pairs around 50% similar become candidates, confirmed at SIMILARITY_THRESHOLD
+    private static final int BANDS = 16;
+    private static final int ROWS_PER_BAND = 4;
+    private static final int SIGNATURE_LENGTH = BANDS * ROWS_PER_BAND;
+    private static final double SIMILARITY_THRESHOLD = 0.6;
+
+    private static final int MAX_DESCRIPTION_CHARS = 500;
+
+    // Reports with coordinates further apart than this are never treated as the same incident
+    private static final double MAX_DISTANCE_KM = 2.0;
+
+    // Only the newest reports in a band bucket are kept; a surge of identical reports would otherwise
+    // make every registration scan the whole surge under the lock
+    private static final int MAX_BUCKET_ENTRIES = 32;
+
+    private static final long[] SEEDS = new SplittableRandom(0x5EEDL).longs(SIGNATURE_LENGTH).toArray();
+
+    @Autowired
+    private EmergencyRequestRepository emergencyRequestRepository;
+
+    @Value("${app.duplicates.window-minutes:180}")
+    private long windowMinutes;
+
+    @Value("${app.duplicates.max-entries:20000}")
+    private int maxEntries;
+
+    // Oldest first, for expiry and eviction
+    private final ArrayDeque<Entry> window = new ArrayDeque<>();
+
+    private final Map<Long, ArrayDeque<Entry>> buckets = new HashMap<>();
+
+    private final Map<String, Entry> entriesById = new HashMap<>();
+
+    // Entries grouped by the incident they belong to, so forgetting an incident touches only its reports
+    private final Map<String, ArrayDeque<Entry>> entriesByIncident = new HashMap<>();
+
+    // Stamped onto candidates as they are scored so a report sharing several bands is scored once
+    private long registrations;
+
+    // Seed the window with recent open reports once the application has started
+    @Override
+    public void run(ApplicationArguments args) {
+        List<EmergencyRequest> recent = emergencyRequestRepository.findOpenCreatedSince(
+                LocalDateTime.now().minusMinutes(windowMinutes), Status.COMPLETED);
+        recent.forEach(this::remember);
+        logger.info("Duplicate detector seeded with " + recent.size() + " recent requests");
+    }
+
+    // Id of the incident this report duplicates, or null when it is new; either way it is remembered
+    public String register(EmergencyRequest request) {
+        long[] signature = signatureOf(request);
+        long[] bandKeys = bandKeysOf(signature);
+
+        synchronized (this) {
+            expire(request.getCreatedAt());
+
+            long stamp = ++registrations;
+            Entry best = null;
+            double bestSimilarity = SIMILARITY_THRESHOLD;
+            for (long bandKey : bandKeys) {
+                ArrayDeque<Entry> bucket = buckets.get(bandKey);
+                if (bucket == null) {
+                    continue;
+                }
+                for (Entry candidate : bucket) {
+                    if (candidate.scoredBy == stamp) {
+                        continue;
+                    }
+                    candidate.scoredBy = stamp;
+                    if (!isNearby(request, candidate)) {
+                        continue;
+                    }
+                    double similarity = similarity(signature, candidate.signature);
+                    if (similarity >= bestSimilarity) {
+                        best = candidate;
+                        bestSimilarity = similarity;
+                    }
+                }
+            }
+
+            String canonicalId = best == null ? null : best.canonicalId;
+            add(new Entry(request.getId(), canonicalId != null ? canonicalId : request.getId(),
+                    request.getCreatedAt(), request.getLatitude(), request.getLongitude(), signature, bandKeys));
+            return canonicalId;
+        }
+    }
+
+    // Stop matching against a report that was closed, deleted or never stored, and its duplicates
+    public synchronized void forget(String requestId) {
+        Entry entry = entriesById.get(requestId);
+        if (entry == null) {
+            return;
+        }
+        unlink(entry);
+        ArrayDeque<Entry> duplicates = entriesByIncident.remove(requestId);
+        if (duplicates != null) {
+            duplicates.forEach(this::unlink);
+        }
+    }
+
+    private synchronized void remember(EmergencyRequest request) {
+        long[] signature = signatureOf(request);
+        String canonicalId = request.getDuplicateOf() != null ? request.getDuplicateOf() : request.getId();
+        add(new Entry(request.getId(), canonicalId, request.getCreatedAt(), request.getLatitude(),
+                request.getLongitude(), signature, bandKeysOf(signature)));
+    }
+
+    private void add(Entry entry) {
+        window.addLast(entry);
+        entriesById.put(entry.id, entry);
+        entriesByIncident.computeIfAbsent(entry.canonicalId, key -> new ArrayDeque<>(2)).addLast(entry);
+        for (long bandKey : entry.bandKeys) {
+            ArrayDeque<Entry> bucket = buckets.computeIfAbsent(bandKey, key -> new ArrayDeque<>(2));
+            bucket.addLast(entry);
+            if (bucket.size() > MAX_BUCKET_ENTRIES) {
+                bucket.pollFirst();
+            }
+        }
+        while (window.size() > maxEntries) {
+            unlink(window.pollFirst());
+        }
+    }
+
+    private void expire(LocalDateTime now) {
+        LocalDateTime cutoff = (now != null ? now : LocalDateTime.now()).minusMinutes(windowMinutes);
+        while (!window.isEmpty() && window.peekFirst().createdAt != null && window.peekFirst().createdAt.isBefore(cutoff)) {
+            unlink(window.pollFirst());
+        }
+    }
+
+    // Forgotten entries stay in the window until they reach its head; the flag makes unlinking them again a no-op
+    private void unlink(Entry entry) {
+        if (entry.removed) {
+            return;
+        }
+        entry.removed = true;
+        entriesById.remove(entry.id, entry);
+        ArrayDeque<Entry> incident = entriesByIncident.get(entry.canonicalId);
+        if (incident != null) {
+            incident.remove(entry);
+            if (incident.isEmpty()) {
+                entriesByIncident.remove(entry.canonicalId);
+            }
+        }
+        for (long bandKey : entry.bandKeys) {
+            ArrayDeque<Entry> bucket = buckets.get(bandKey);
+            if (bucket != null) {
+                bucket.remove(entry);
+                if (bucket.isEmpty()) {
+                    buckets.remove(bandKey);
+                }
+            }
+        }
+    }
+
+    private boolean isNearby(EmergencyRequest request, Entry candidate) {
+        if (request.getLatitude() == null || request.getLongitude() == null
+                || candidate.latitude == null || candidate.longitude == null) {
+            return true;
+        }
+        return EmergencyGeoIndex.distanceKm(request.getLatitude(), request.getLongitude(),
+                candidate.latitude, candidate.longitude) <= MAX_DISTANCE_KM;
+    }
+
+    // Fraction of matching signature positions estimates the Jaccard similarity of the shingle sets
+    private static double similarity(long[] a, long[] b) {
+        int matches = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            if (a[i] == b[i]) {
+                matches++;
+            }
+        }
+        return (double) matches / SIGNATURE_LENGTH;
+    }
+
+    private static long[] signatureOf(EmergencyRequest request) {
+        long[] signature = new long[SIGNATURE_LENGTH];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (long shingle : shinglesOf(request)) {
+            for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+                long hash = mix(shingle ^ SEEDS[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static long[] bandKeysOf(long[] signature) {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long key = band;
+            for (int row = 0; row < ROWS_PER_BAND; row++) {
+                key = mix(key * 31 + signature[band * ROWS_PER_BAND + row]);
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    // Single words and adjacent word pairs, hashed; fields are tagged so the same word in different fields differs
+    private static long[] shinglesOf(EmergencyRequest request) {
+        String description = request.getDescription();
+        if (description != null && description.length() > MAX_DESCRIPTION_CHARS) {
+            description = description.substring(0, MAX_DESCRIPTION_CHARS);
+        }
+        List<Long> shingles = new ArrayList<>();
+        addShingles(shingles, 1, request.getAnimalType());
+        addShingles(shingles, 2, request.getLocation());
+        addShingles(shingles, 3, description);
+        return shingles.stream().mapToLong(Long::longValue).distinct().toArray();
+    }
+
+    private static void addShingles(List<Long> shingles, int field, String text) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        long previous = 0;
+        for (String word : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            long hash = mix(field * 0x9E3779B97F4A7C15L + word.hashCode());
+            shingles.add(hash);
+            if (previous != 0) {
+                shingles.add(mix(previous * 31 + hash));
+            }
+            previous = hash;
+        }
+    }
+
+    // 64-bit finalizer from SplitMix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Entry {
+
+        private final String id;
+        private final String canonicalId;
+        private final LocalDateTime createdAt;
+        private final Double latitude;
+        private final Double longitude;
+        private final long[] signature;
+        private final long[] bandKeys;
+        private long scoredBy;
+        private boolean removed;
+
+        private Entry(String id, String canonicalId, LocalDateTime createdAt, Double latitude, Double longitude,
+                      long[] signature, long[] bandKeys) {
+            this.id = id;
+            this.canonicalId = canonicalId;
+            this.createdAt = createdAt;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.signature = signature;
+            this.bandKeys = bandKeys;
+        }
+    }
+}
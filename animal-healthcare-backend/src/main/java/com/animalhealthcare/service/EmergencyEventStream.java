@@ -0,0 +1,183 @@
+package com.animalhealthcare.service;
+
+import com.animalhealthcare.dto.EmergencyEvent;
+import com.animalhealthcare.entity.EmergencyRequest;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+// Fans emergency request changes out to Server-Sent Events subscribers.
+// Publishing and subscribing run under one lock, so a resuming client gets its replay and then live
+// events with no gap or duplicate. Neither does any I/O: events go into a bounded queue per
+// subscriber, and each queue is written out by its own drain task. A stalled client therefore
+// holds up only itself, and once its queue is full it is dropped; its EventSource reconnects with
+// Last-Event-ID and resumes from the replay buffer (or gets a reset).
+@Component
+public class EmergencyEventStream {
+    
+    private static final Logger logger = Logger.getLogger(EmergencyEventStream.class.getName());
+    
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+    private static final int REPLAY_BUFFER_SIZE = 1000;
+    // Room for a full replay plus the live events that arrive while it is written
+    private static final int SUBSCRIBER_QUEUE_SIZE = REPLAY_BUFFER_SIZE + 256;
+    
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    
+    private final ArrayDeque<EmergencyEvent> replayBuffer = new ArrayDeque<>(REPLAY_BUFFER_SIZE);
+    
+    // Seeded from the clock so ids keep increasing across restarts and stale Last-Event-IDs are detected
+    private final AtomicLong nextEventId = new AtomicLong(System.currentTimeMillis() * 1000);
+    
+    // Threads only exist while some subscriber has events to write, one per such subscriber at most
+    private final ExecutorService writers = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+        
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "emergency-events-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    
+    public synchronized void publish(EmergencyEvent.Type type, EmergencyRequest request) {
+        EmergencyEvent event = new EmergencyEvent(nextEventId.incrementAndGet(), type, request);
+        if (replayBuffer.size() == REPLAY_BUFFER_SIZE) {
+            replayBuffer.removeFirst();
+        }
+        replayBuffer.addLast(event);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(eventFor(event));
+        }
+    }
+    
+    // Open a stream, first replaying buffered events after lastEventId when the client is resuming
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::detach);
+        emitter.onTimeout(subscriber::detach);
+        emitter.onError(error -> subscriber.detach());
+        
+        synchronized (this) {
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+    
+    // Comment lines keep proxies from closing idle streams and flush out dead clients
+    @Scheduled(fixedRate = 20000)
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(SseEmitter.event().comment("keep-alive"));
+        }
+    }
+    
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.detach();
+            subscriber.emitter.complete();
+        }
+    }
+    
+    private void replay(Subscriber subscriber, long lastEventId) {
+        EmergencyEvent oldest = replayBuffer.peekFirst();
+        // Events the client missed have been evicted, so it has to reload its lists
+        if (oldest == null ? lastEventId < nextEventId.get() : oldest.getId() > lastEventId + 1) {
+            subscriber.offer(SseEmitter.event().name("reset").data("Replay window exceeded; reload current state"));
+            return;
+        }
+        for (EmergencyEvent event : replayBuffer) {
+            if (event.getId() > lastEventId) {
+                subscriber.offer(eventFor(event));
+            }
+        }
+    }
+    
+    private static SseEmitter.SseEventBuilder eventFor(EmergencyEvent event) {
+        return SseEmitter.event()
+                .id(String.valueOf(event.getId()))
+                .name("emergency")
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+    
+    private final class Subscriber {
+        
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending = new ArrayBlockingQueue<>(SUBSCRIBER_QUEUE_SIZE);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+        
+        // Never blocks: callers hold the publish lock
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!pending.offer(event)) {
+                logger.info("Dropping SSE subscriber that fell " + SUBSCRIBER_QUEUE_SIZE + " events behind");
+                detach();
+                // complete() waits for a send in progress, so it must not run on the publishing thread
+                writers.execute(emitter::complete);
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+        
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = pending.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        logger.fine("Dropping SSE subscriber: " + e.getMessage());
+                        detach();
+                    }
+                }
+                draining.set(false);
+                // An event offered after the last poll but before the flag was cleared needs a new pass
+                if (closed || pending.isEmpty() || !draining.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+        
+        private void detach() {
+            closed = true;
+            subscribers.remove(this);
+            pending.clear();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.animalhealthcare.service;
+
+import com.animalhealthcare.dto.NearbyEmergencyRequest;
+import com.animalhealthcare.entity.EmergencyRequest;
+import com.animalhealthcare.entity.Status;
+import com.animalhealthcare.entity.Urgency;
+import com.animalhealthcare.repository.EmergencyRequestRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+// Fixed-size lat/lng grid over open (not completed) requests that have coordinates.
+// A radius query only visits the cells overlapping the search circle's bounding box.
+@Component
+public class EmergencyGeoIndex implements ApplicationRunner {
+    
+    private static final Logger logger = Logger.getLogger(EmergencyGeoIndex.class.getName());
+    
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+    
+    // Roughly 5.5 km cells, small enough that a typical radius touches a handful of them
+    private static final double CELL_DEGREES = 0.05;
+    private static final int LAT_CELLS = (int) Math.ceil(180 / CELL_DEGREES);
+    private static final int LNG_CELLS = (int) Math.ceil(360 / CELL_DEGREES);
+    
+    // How much farther a request may be and still rank level with a LOW one, by urgency in ordinal order
+    // (CRITICAL, HIGH, MEDIUM, LOW); requests without an urgency rank as LOW
+    private static final double[] URGENCY_WEIGHTS = {4.0, 2.0, 1.5, 1.0};
+    
+    // Ranked by distance divided by the urgency weight: a CRITICAL request 8 km away ranks level with
+    // a LOW one 2 km away, so urgency counts at every distance rather than only breaking exact ties.
+    // Equal scores go to the nearer request.
+    private static final Comparator<NearbyEmergencyRequest> NEAREST_FIRST = Comparator
+            .comparingDouble(EmergencyGeoIndex::weightedDistance)
+            .thenComparingDouble(NearbyEmergencyRequest::getDistanceKm);
+    
+    @Autowired
+    private EmergencyRequestRepository emergencyRequestRepository;
+    
+    private final ConcurrentHashMap<Long, Set<String>> cells = new ConcurrentHashMap<>();
+    
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        emergencyRequestRepository.findOpenWithCoordinates(Status.COMPLETED).forEach(this::upsert);
+        logger.info("Geo index built with " + entries.size() + " open requests");
+    }
+    
+    // Index, move or drop a request depending on whether it is open and located
+    public void upsert(EmergencyRequest request) {
+        entries.compute(request.getId(), (id, existing) -> {
+            if (existing != null) {
+                removeFromCell(existing.cell(), id);
+            }
+            if (!isIndexable(request)) {
+                return null;
+            }
+            long cell = cellOf(request.getLatitude(), request.getLongitude());
+            cells.compute(cell, (key, ids) -> {
+                Set<String> cellIds = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                cellIds.add(id);
+                return cellIds;
+            });
+            return new Entry(request, cell);
+        });
+    }
+    
+    public void remove(String requestId) {
+        entries.computeIfPresent(requestId, (id, existing) -> {
+            removeFromCell(existing.cell(), id);
+            return null;
+        });
+    }
+    
+    // Open requests within radiusKm of the point, nearest first and most urgent on ties
+    public List<NearbyEmergencyRequest> findNearby(double latitude, double longitude, double radiusKm, int limit) {
+        double latDelta = radiusKm / KM_PER_DEGREE_LAT;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double lngDelta = cosLat < 1e-6 ? 180 : radiusKm / (KM_PER_DEGREE_LAT * cosLat);
+        
+        int minLatCell = Math.max(0, latCell(latitude - latDelta));
+        int maxLatCell = Math.min(LAT_CELLS - 1, latCell(latitude + latDelta));
+        int lngCellSpan = lngDelta >= 180 ? LNG_CELLS : (int) Math.ceil(lngDelta / CELL_DEGREES);
+        int centerLngCell = lngCell(longitude);
+        
+        List<NearbyEmergencyRequest> matches = new ArrayList<>();
+        for (int latIdx = minLatCell; latIdx <= maxLatCell; latIdx++) {
+            int fromLng = lngCellSpan >= LNG_CELLS / 2 ? 0 : centerLngCell - lngCellSpan;
+            int toLng = lngCellSpan >= LNG_CELLS / 2 ? LNG_CELLS - 1 : centerLngCell + lngCellSpan;
+            for (int lngIdx = fromLng; lngIdx <= toLng; lngIdx++) {
+                // Wrap around the antimeridian
+                int wrappedLng = Math.floorMod(lngIdx, LNG_CELLS);
+                Set<String> ids = cells.get((long) latIdx * LNG_CELLS + wrappedLng);
+                if (ids == null) {
+                    continue;
+                }
+                for (String id : ids) {
+                    Entry entry = entries.get(id);
+                    if (entry == null) {
+                        continue;
+                    }
+                    EmergencyRequest request = entry.request();
+                    double distance = distanceKm(latitude, longitude, request.getLatitude(), request.getLongitude());
+                    if (distance <= radiusKm) {
+                        matches.add(new NearbyEmergencyRequest(request, distance));
+                    }
+                }
+            }
+        }
+        
+        matches.sort(NEAREST_FIRST);
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+    
+    private static double weightedDistance(NearbyEmergencyRequest match) {
+        Urgency urgency = match.getRequest().getUrgency();
+        return match.getDistanceKm() / (urgency != null ? URGENCY_WEIGHTS[urgency.ordinal()] : 1.0);
+    }
+    
+    // Great-circle distance using the haversine formula
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+    
+    private boolean isIndexable(EmergencyRequest request) {
+        return request.getStatus() != Status.COMPLETED
+                && request.getDuplicateOf() == null
+                && request.getLatitude() != null
+                && request.getLongitude() != null;
+    }
+    
+    private void removeFromCell(long cell, String id) {
+        cells.computeIfPresent(cell, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+    
+    private static long cellOf(double latitude, double longitude) {
+        return (long) Math.min(LAT_CELLS - 1, latCell(latitude)) * LNG_CELLS + lngCell(longitude);
+    }
+    
+    private static int latCell(double latitude) {
+        return (int) Math.floor((latitude + 90) / CELL_DEGREES);
+    }
+    
+    private static int lngCell(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), LNG_CELLS);
+    }
+    
+    private record Entry(EmergencyRequest request, long cell) {}
+}
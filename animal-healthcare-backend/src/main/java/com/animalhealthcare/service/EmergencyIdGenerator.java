@@ -0,0 +1,7 @@
+package com.animalhealthcare.service;
+
+// Source of new emergency request IDs; swap the bean to change the scheme
+public interface EmergencyIdGenerator {
+
+    String nextId();
+}
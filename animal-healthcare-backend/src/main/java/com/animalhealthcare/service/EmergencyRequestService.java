@@ -1,136 +1,389 @@
 package com.animalhealthcare.service;
 
+import com.animalhealthcare.dto.BatchRowResult;
+import com.animalhealthcare.dto.CursorPage;
+import com.animalhealthcare.dto.EmergencyEvent;
 import com.animalhealthcare.dto.EmergencyRequestDto;
+import com.animalhealthcare.dto.EmergencyRequestSummary;
+import com.animalhealthcare.dto.IncidentAnalytics;
+import com.animalhealthcare.dto.NearbyEmergencyRequest;
+import com.animalhealthcare.dto.PageCursor;
+import com.animalhealthcare.dto.VolunteerCandidate;
 import com.animalhealthcare.entity.EmergencyRequest;
 import com.animalhealthcare.entity.Status;
 import com.animalhealthcare.entity.Urgency;
 import com.animalhealthcare.entity.User;
+import com.animalhealthcare.exception.RequestAlreadyClaimedException;
+import com.animalhealthcare.repository.EmergencyArchiveRepository;
+import com.animalhealthcare.repository.EmergencyRequestBatchWriter;
 import com.animalhealthcare.repository.EmergencyRequestRepository;
 import com.animalhealthcare.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 public class EmergencyRequestService {
     
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    
+    public static final int MAX_BATCH_ROWS = 50000;
+    private static final int INSERT_CHUNK_SIZE = 1000;
+    private static final int STATUS_UPDATE_ATTEMPTS = 5;
+    
     @Autowired
     private EmergencyRequestRepository emergencyRequestRepository;
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private EmergencyRequestBatchWriter batchWriter;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private EmergencyDispatchQueue dispatchQueue;
+    
+    @Autowired
+    private EmergencyStatsCounters statsCounters;
+    
+    @Autowired
+    private EmergencyGeoIndex geoIndex;
+    
+    @Autowired
+    private EmergencySearchIndex searchIndex;
+    
+    @Autowired
+    private EmergencyEventStream eventStream;
+    
+    @Autowired
+    private EmergencySpool spool;
+    
+    @Autowired
+    private EmergencyArchiveRepository archiveRepository;
+    
+    @Autowired
+    private EmergencyDuplicateDetector duplicateDetector;
+    
+    @Autowired
+    private IncidentRollups incidentRollups;
+    
+    @Autowired
+    private VolunteerRecommender volunteerRecommender;
+    
+    @Autowired
+    private EmergencySlaMonitor slaMonitor;
+    
+    @Autowired
+    private CollectionVersions collectionVersions;
+    
+    @Autowired
+    private EmergencyIdGenerator idGenerator;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void registerSpoolSink() {
+        spool.setSink(this::storeSpooled);
+    }
+    
+    // Public intake: acknowledged once durably spooled, stored in the database in the background
     public EmergencyRequest createEmergencyRequest(EmergencyRequestDto requestDto, Long userId) {
-        EmergencyRequest emergencyRequest = new EmergencyRequest();
-        
-        // Generate unique ID
-        emergencyRequest.setId("EMR-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
-        
-        // Set user ID if provided (null for anonymous requests)
-        emergencyRequest.setUserId(userId);
-        
-        // Map DTO fields
-        emergencyRequest.setAnimalType(requestDto.getAnimalType());
-        emergencyRequest.setLocation(requestDto.getLocation());
-        emergencyRequest.setContactName(requestDto.getContactName());
-        emergencyRequest.setContactPhone(requestDto.getContactPhone());
-        emergencyRequest.setContactEmail(requestDto.getContactEmail());
-        emergencyRequest.setDescription(requestDto.getDescription());
-        
-        // Set urgency
+        EmergencyRequest emergencyRequest = toEntity(requestDto, userId);
+        emergencyRequest.setCreatedAt(LocalDateTime.now());
+        emergencyRequest.setDuplicateOf(duplicateDetector.register(emergencyRequest));
         try {
-            emergencyRequest.setUrgency(Urgency.valueOf(requestDto.getUrgency().toUpperCase()));
-        } catch (IllegalArgumentException e) {
-            emergencyRequest.setUrgency(Urgency.MEDIUM); // Default urgency
+            spool.append(emergencyRequest);
+        } catch (RuntimeException e) {
+            duplicateDetector.forget(emergencyRequest.getId());
+            throw e;
+        }
+        return emergencyRequest;
+    }
+    
+    // Bulk intake: validate rows in parallel, then insert the valid ones with JDBC batches
+    public List<BatchRowResult> createEmergencyRequests(List<EmergencyRequestDto> rows, Long userId) {
+        return processBatch(rows, Map.of(), userId);
+    }
+    
+    // Bulk intake from CSV with a header row naming the EmergencyRequestDto fields
+    public List<BatchRowResult> createEmergencyRequestsFromCsv(Reader input, Long userId) throws IOException {
+        CsvReader csv = new CsvReader(input);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new RuntimeException("CSV input is empty");
         }
         
-        // Set default status
-        emergencyRequest.setStatus(Status.PENDING);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(normalizeColumn(header.get(i)), i);
+        }
+        
+        List<EmergencyRequestDto> rows = new ArrayList<>();
+        Map<Integer, String> parseErrors = new HashMap<>();
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            if (record.stream().allMatch(String::isBlank)) {
+                continue;
+            }
+            if (rows.size() == MAX_BATCH_ROWS) {
+                throw new RuntimeException("Batch exceeds the limit of " + MAX_BATCH_ROWS + " rows");
+            }
+            
+            EmergencyRequestDto dto = new EmergencyRequestDto();
+            dto.setAnimalType(csvValue(record, columns, "animaltype"));
+            dto.setUrgency(csvValue(record, columns, "urgency"));
+            dto.setLocation(csvValue(record, columns, "location"));
+            dto.setContactName(csvValue(record, columns, "contactname"));
+            dto.setContactPhone(csvValue(record, columns, "contactphone"));
+            dto.setContactEmail(csvValue(record, columns, "contactemail"));
+            dto.setDescription(csvValue(record, columns, "description"));
+            try {
+                dto.setLatitude(parseCoordinate(csvValue(record, columns, "latitude")));
+                dto.setLongitude(parseCoordinate(csvValue(record, columns, "longitude")));
+            } catch (NumberFormatException e) {
+                parseErrors.put(rows.size(), "Latitude and longitude must be numbers");
+            }
+            rows.add(dto);
+        }
         
-        return emergencyRequestRepository.save(emergencyRequest);
+        return processBatch(rows, parseErrors, userId);
     }
     
     public Optional<EmergencyRequest> findById(String id) {
-        return emergencyRequestRepository.findById(id);
-    }
-    
-    public List<EmergencyRequest> findAllRequests() {
-        return emergencyRequestRepository.findAll();
+        return emergencyRequestRepository.findById(id)
+                .or(() -> spool.findUndrained(id))
+                .or(() -> archiveRepository.findById(id));
     }
     
-    public List<EmergencyRequest> findRequestsByStatus(Status status) {
-        return emergencyRequestRepository.findByStatus(status);
+    // Every request as a cursor-backed stream; the caller must consume it inside a transaction
+    public Stream<EmergencyRequestSummary> streamAllRequests() {
+        return emergencyRequestRepository.streamAllSummaries();
     }
     
-    public List<EmergencyRequest> findRequestsByUrgency(Urgency urgency) {
-        return emergencyRequestRepository.findByUrgency(urgency);
+    // Volunteers ranked for this request by distance and current workload
+    public List<VolunteerCandidate> findCandidates(String requestId, int k) {
+        EmergencyRequest request = findById(requestId)
+                .orElseThrow(() -> new RuntimeException("Emergency request not found"));
+        return volunteerRecommender.topCandidates(request, k);
     }
     
-    public List<EmergencyRequest> findRequestsByUserId(Long userId) {
-        return emergencyRequestRepository.findByUserId(userId);
+    // Later reports that were linked to this incident as near-duplicates, oldest first
+    public List<EmergencyRequestSummary> findDuplicates(String requestId) {
+        return emergencyRequestRepository.findSummariesByDuplicateOf(requestId);
     }
     
     public List<EmergencyRequest> findRequestsByVolunteerId(Long volunteerId) {
         return emergencyRequestRepository.findByVolunteerId(volunteerId);
     }
     
-    public List<EmergencyRequest> findPendingRequestsByPriority() {
-        return emergencyRequestRepository.findPendingRequestsByPriority(Status.PENDING);
+    // Served from the in-memory dispatch queue, most urgent and oldest first
+    public List<EmergencyRequestSummary> findPendingRequestsByPriority(int limit) {
+        return dispatchQueue.top(limit).stream()
+                .map(EmergencyRequestSummary::of)
+                .toList();
     }
     
-    public List<EmergencyRequest> findRecentRequests(int hours) {
+    // Keyset-paged listings, newest first
+    public CursorPage<EmergencyRequestSummary> findAllRequests(String cursor, int limit) {
+        return fetchPage(cursor, limit, emergencyRequestRepository::findPage);
+    }
+    
+    public CursorPage<EmergencyRequestSummary> findRequestsByStatus(Status status, String cursor, int limit) {
+        return fetchPage(cursor, limit, (createdAt, id, pageLimit) ->
+                emergencyRequestRepository.findPageByStatus(status, createdAt, id, pageLimit));
+    }
+    
+    public CursorPage<EmergencyRequestSummary> findRequestsByUrgency(Urgency urgency, String cursor, int limit) {
+        return fetchPage(cursor, limit, (createdAt, id, pageLimit) ->
+                emergencyRequestRepository.findPageByUrgency(urgency, createdAt, id, pageLimit));
+    }
+    
+    public CursorPage<EmergencyRequestSummary> findRequestsByUserId(Long userId, String cursor, int limit) {
+        return fetchPage(cursor, limit, (createdAt, id, pageLimit) ->
+                emergencyRequestRepository.findPageByUserId(userId, createdAt, id, pageLimit));
+    }
+    
+    public CursorPage<EmergencyRequestSummary> findRecentRequests(int hours, String cursor, int limit) {
         LocalDateTime fromDate = LocalDateTime.now().minusHours(hours);
-        return emergencyRequestRepository.findRecentRequests(fromDate);
+        return fetchPage(cursor, limit, (createdAt, id, pageLimit) ->
+                emergencyRequestRepository.findRecentPage(fromDate, createdAt, id, pageLimit));
+    }
+    
+    public CursorPage<EmergencyRequestSummary> findRequestsByLocation(String location, String cursor, int limit) {
+        return fetchPage(cursor, limit, (createdAt, id, pageLimit) ->
+                emergencyRequestRepository.findPageByLocationContaining(location, createdAt, id, pageLimit));
     }
     
-    public List<EmergencyRequest> findRequestsByLocation(String location) {
-        return emergencyRequestRepository.findByLocationContaining(location);
+    public CursorPage<EmergencyRequestSummary> findRequestsByAnimalType(String animalType, String cursor, int limit) {
+        return fetchPage(cursor, limit, (createdAt, id, pageLimit) ->
+                emergencyRequestRepository.findPageByAnimalTypeContaining(animalType, createdAt, id, pageLimit));
     }
     
-    public List<EmergencyRequest> findRequestsByAnimalType(String animalType) {
-        return emergencyRequestRepository.findByAnimalTypeContaining(animalType);
+    // Open requests near a point, answered from the in-memory geo index
+    public List<NearbyEmergencyRequest> findNearbyRequests(double latitude, double longitude, double radiusKm, int limit) {
+        return geoIndex.findNearby(latitude, longitude, radiusKm, limit);
     }
     
+    // Ranked free-text search over location, animal type and description
+    public List<EmergencyRequestSummary> searchRequests(String query, int limit) {
+        List<String> rankedIds = searchIndex.search(query, limit);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, EmergencyRequestSummary> found = emergencyRequestRepository.findSummariesByIdIn(rankedIds).stream()
+                .collect(Collectors.toMap(EmergencyRequestSummary::getId, Function.identity()));
+        
+        return rankedIds.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+    
+    public SseEmitter subscribeToEvents(Long lastEventId) {
+        return eventStream.subscribe(lastEventId);
+    }
+    
+    // Claim a pending request with a single conditional UPDATE; concurrent claimers cannot both win
     public EmergencyRequest assignVolunteer(String requestId, Long volunteerId) {
+        User volunteer = userRepository.findById(volunteerId)
+                .orElseThrow(() -> new RuntimeException("Volunteer not found"));
+        
+        // Microsecond precision matches the column, so the SLA monitor can compare it exactly later
+        LocalDateTime acceptedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int claimed = emergencyRequestRepository.claim(requestId, volunteerId, volunteer.getFullName(),
+                volunteer.getPhone(), Status.PENDING, Status.ACCEPTED, acceptedAt);
+        
         EmergencyRequest request = emergencyRequestRepository.findById(requestId)
                 .orElseThrow(() -> new RuntimeException("Emergency request not found"));
+        if (claimed == 0) {
+            throw new RequestAlreadyClaimedException("Emergency request is no longer pending (status: "
+                    + request.getStatus() + ")");
+        }
         
-        Optional<User> volunteer = userRepository.findById(volunteerId);
-        if (volunteer.isPresent()) {
-            User vol = volunteer.get();
-            request.setVolunteerId(volunteerId);
-            request.setVolunteerName(vol.getFullName());
-            request.setVolunteerPhone(vol.getPhone());
-            request.setStatus(Status.ACCEPTED);
-            
-            return emergencyRequestRepository.save(request);
-        } else {
-            throw new RuntimeException("Volunteer not found");
+        EmergencyRequestState previous = new EmergencyRequestState(Status.PENDING, request.getUrgency(), null);
+        return recordUpdated(EmergencyEvent.Type.ASSIGNED, previous, request);
+    }
+    
+    // SLA deadline handlers used by EmergencySlaMonitor. Each acts only if the request is still in the
+    // state the deadline was set for, and returns the request as it now stands (null if it is gone).
+    public EmergencyRequest escalateUrgency(String requestId, Urgency expectedUrgency) {
+        Urgency raised = Urgency.values()[Math.max(0, expectedUrgency.ordinal() - 1)];
+        int escalated = emergencyRequestRepository.escalate(requestId, Status.PENDING, expectedUrgency, raised);
+        EmergencyRequest request = emergencyRequestRepository.findById(requestId).orElse(null);
+        if (escalated == 0 || request == null) {
+            return request;
         }
+        EmergencyRequestState previous = new EmergencyRequestState(Status.PENDING, expectedUrgency, null);
+        return recordUpdated(EmergencyEvent.Type.ESCALATED, previous, request);
     }
     
+    public EmergencyRequest rebroadcast(String requestId) {
+        EmergencyRequest request = emergencyRequestRepository.findById(requestId).orElse(null);
+        if (request != null && request.getStatus() == Status.PENDING) {
+            eventStream.publish(EmergencyEvent.Type.REBROADCAST, request);
+        }
+        return request;
+    }
+    
+    public EmergencyRequest releaseStaleClaim(String requestId, Long volunteerId, LocalDateTime acceptedAt) {
+        int released = emergencyRequestRepository.release(requestId, volunteerId, acceptedAt,
+                Status.ACCEPTED, Status.PENDING);
+        EmergencyRequest request = emergencyRequestRepository.findById(requestId).orElse(null);
+        if (released == 0 || request == null) {
+            return request;
+        }
+        EmergencyRequestState previous = new EmergencyRequestState(Status.ACCEPTED, request.getUrgency(), volunteerId);
+        return recordUpdated(EmergencyEvent.Type.RELEASED, previous, request);
+    }
+    
+    // A conditional UPDATE from the status last read, as for claims: if another change lands first it
+    // misses and is retried, so the in-memory counters always move away from the status really replaced
     public EmergencyRequest updateRequestStatus(String requestId, Status status) {
-        EmergencyRequest request = emergencyRequestRepository.findById(requestId)
-                .orElseThrow(() -> new RuntimeException("Emergency request not found"));
-        
-        request.setStatus(status);
-        return emergencyRequestRepository.save(request);
+        for (int attempt = 0; attempt < STATUS_UPDATE_ATTEMPTS; attempt++) {
+            Status current = emergencyRequestRepository.findById(requestId)
+                    .orElseThrow(() -> new RuntimeException("Emergency request not found"))
+                    .getStatus();
+            if (emergencyRequestRepository.transitionStatus(requestId, current, status) == 0) {
+                continue;
+            }
+            EmergencyRequest request = emergencyRequestRepository.findById(requestId)
+                    .orElseThrow(() -> new RuntimeException("Emergency request not found"));
+            // Only the status was written, so everything else is as it was before
+            EmergencyRequestState previous = new EmergencyRequestState(current, request.getUrgency(),
+                    request.getVolunteerId());
+            return recordUpdated(EmergencyEvent.Type.UPDATED, previous, request);
+        }
+        throw new RuntimeException("Emergency request is being changed by someone else, please try again");
     }
     
+    // The previous state is read under a row lock held until the save commits, so no other change
+    // can land in between and skew the counters
     public EmergencyRequest updateRequest(EmergencyRequest request) {
-        return emergencyRequestRepository.save(request);
+        LockedChange change = transactionTemplate.execute(status -> new LockedChange(
+                emergencyRequestRepository.findByIdForUpdate(request.getId()).map(EmergencyRequestState::of).orElse(null),
+                emergencyRequestRepository.save(request)));
+        return change.previous() != null
+                ? recordUpdated(EmergencyEvent.Type.UPDATED, change.previous(), change.saved())
+                : recordCreated(change.saved());
     }
     
     public void deleteRequest(String id) {
-        emergencyRequestRepository.deleteById(id);
+        EmergencyRequest deleted = transactionTemplate.execute(status -> emergencyRequestRepository.findByIdForUpdate(id)
+                .map(request -> {
+                    emergencyRequestRepository.delete(request);
+                    return request;
+                })
+                .orElse(null));
+        if (deleted != null) {
+            recordDeleted(deleted);
+        }
+    }
+    
+    // Served from the in-memory rollup buckets
+    public IncidentAnalytics getIncidentAnalytics(IncidentRollups.Granularity granularity,
+                                                  LocalDateTime from, LocalDateTime to) {
+        return incidentRollups.query(granularity, from, to);
     }
     
+    // Counts come from the in-memory counters rather than a COUNT query
     public Long countRequestsByStatus(Status status) {
-        return emergencyRequestRepository.countByStatus(status);
+        return statsCounters.countByStatus(status);
+    }
+    
+    public Long getTotalRequestsCount() {
+        return statsCounters.getTotal();
+    }
+    
+    public Long getInProgressRequestsCount() {
+        return countRequestsByStatus(Status.IN_PROGRESS);
     }
     
     public Long getPendingRequestsCount() {
@@ -141,31 +394,270 @@ public class EmergencyRequestService {
         return countRequestsByStatus(Status.COMPLETED);
     }
     
+    // Completed with a conditional UPDATE like updateRequestStatus; the assignment check is repeated in
+    // the UPDATE, so a claim released after it was read cannot be completed by its former volunteer
     public EmergencyRequest markRequestComplete(String requestId, Long completedByUserId) {
-        EmergencyRequest request = emergencyRequestRepository.findById(requestId)
-                .orElseThrow(() -> new RuntimeException("Emergency request not found"));
-        
-        // Verify that only assigned volunteer or admin can mark as complete
-        Optional<User> completingUser = userRepository.findById(completedByUserId);
-        if (completingUser.isPresent()) {
-            User user = completingUser.get();
+        for (int attempt = 0; attempt < STATUS_UPDATE_ATTEMPTS; attempt++) {
+            EmergencyRequest request = emergencyRequestRepository.findById(requestId)
+                    .orElseThrow(() -> new RuntimeException("Emergency request not found"));
             
-            // Check if user is admin or the assigned volunteer
-            boolean canComplete = user.getRole().name().equals("ADMIN") || 
-                                (request.getVolunteerId() != null && 
-                                 request.getVolunteerId().equals(completedByUserId));
+            User user = userRepository.findById(completedByUserId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
             
-            if (!canComplete) {
+            // Check if user is admin or the assigned volunteer
+            Long assignedVolunteerId = user.getRole().name().equals("ADMIN") ? null : completedByUserId;
+            if (assignedVolunteerId != null && !assignedVolunteerId.equals(request.getVolunteerId())) {
                 throw new RuntimeException("Only the assigned volunteer or admin can mark this request as complete");
             }
             
-            request.setStatus(Status.COMPLETED);
-            request.setCompletedAt(LocalDateTime.now());
-            request.setCompletedBy(user.getFullName());
-            
-            return emergencyRequestRepository.save(request);
-        } else {
-            throw new RuntimeException("User not found");
+            Status current = request.getStatus();
+            if (emergencyRequestRepository.complete(requestId, current, Status.COMPLETED, assignedVolunteerId,
+                    LocalDateTime.now(), user.getFullName()) == 0) {
+                continue;
+            }
+            EmergencyRequest completed = emergencyRequestRepository.findById(requestId)
+                    .orElseThrow(() -> new RuntimeException("Emergency request not found"));
+            EmergencyRequestState previous = new EmergencyRequestState(current, completed.getUrgency(),
+                    completed.getVolunteerId());
+            return recordUpdated(EmergencyEvent.Type.COMPLETED, previous, completed);
+        }
+        throw new RuntimeException("Emergency request is being changed by someone else, please try again");
+    }
+    
+    private EmergencyRequest toEntity(EmergencyRequestDto requestDto, Long userId) {
+        EmergencyRequest emergencyRequest = new EmergencyRequest();
+        
+        // Generate unique, time-ordered ID
+        emergencyRequest.setId(idGenerator.nextId());
+        
+        // Set user ID if provided (null for anonymous requests)
+        emergencyRequest.setUserId(userId);
+        
+        // Map DTO fields
+        emergencyRequest.setAnimalType(requestDto.getAnimalType());
+        emergencyRequest.setLocation(requestDto.getLocation());
+        emergencyRequest.setLatitude(requestDto.getLatitude());
+        emergencyRequest.setLongitude(requestDto.getLongitude());
+        emergencyRequest.setContactName(requestDto.getContactName());
+        emergencyRequest.setContactPhone(requestDto.getContactPhone());
+        emergencyRequest.setContactEmail(requestDto.getContactEmail());
+        emergencyRequest.setDescription(requestDto.getDescription());
+        
+        // Set urgency
+        try {
+            emergencyRequest.setUrgency(Urgency.valueOf(requestDto.getUrgency().toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            emergencyRequest.setUrgency(Urgency.MEDIUM); // Default urgency
+        }
+        
+        // Set default status
+        emergencyRequest.setStatus(Status.PENDING);
+        
+        return emergencyRequest;
+    }
+    
+    // Drain target for the spool; replayed records may already be stored, so those are skipped
+    private void storeSpooled(List<EmergencyRequest> requests) {
+        Set<String> stored = new HashSet<>(emergencyRequestRepository.findExistingIds(
+                requests.stream().map(EmergencyRequest::getId).toList()));
+        List<EmergencyRequest> fresh = requests.stream()
+                .filter(request -> !stored.contains(request.getId()))
+                .toList();
+        if (fresh.isEmpty()) {
+            return;
+        }
+        batchWriter.insertAll(fresh);
+        fresh.forEach(this::recordCreated);
+        // A duplicate stored after its incident was completed missed the cascade, so run it again
+        fresh.stream()
+                .map(EmergencyRequest::getDuplicateOf)
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(originalId -> emergencyRequestRepository.findById(originalId).orElse(null))
+                .filter(original -> original != null && original.getStatus() == Status.COMPLETED)
+                .forEach(this::completeDuplicates);
+    }
+    
+    private List<BatchRowResult> processBatch(List<EmergencyRequestDto> rows, Map<Integer, String> parseErrors,
+                                              Long userId) {
+        if (rows.size() > MAX_BATCH_ROWS) {
+            throw new RuntimeException("Batch exceeds the limit of " + MAX_BATCH_ROWS + " rows");
+        }
+        
+        // Bean validation is CPU bound and independent per row, so spread it across cores
+        List<List<String>> rowErrors = IntStream.range(0, rows.size())
+                .parallel()
+                .mapToObj(i -> validateRow(rows.get(i), parseErrors.get(i)))
+                .toList();
+        
+        BatchRowResult[] results = new BatchRowResult[rows.size()];
+        List<EmergencyRequest> accepted = new ArrayList<>();
+        List<Integer> acceptedRows = new ArrayList<>();
+        LocalDateTime createdAt = LocalDateTime.now();
+        for (int i = 0; i < rows.size(); i++) {
+            if (!rowErrors.get(i).isEmpty()) {
+                results[i] = BatchRowResult.rejected(i + 1, rowErrors.get(i));
+                continue;
+            }
+            // JDBC inserts bypass @CreationTimestamp, so stamp the rows here
+            EmergencyRequest request = toEntity(rows.get(i), userId);
+            request.setCreatedAt(createdAt);
+            accepted.add(request);
+            acceptedRows.add(i);
         }
+        
+        for (int from = 0; from < accepted.size(); from += INSERT_CHUNK_SIZE) {
+            int to = Math.min(from + INSERT_CHUNK_SIZE, accepted.size());
+            List<EmergencyRequest> chunk = accepted.subList(from, to);
+            try {
+                batchWriter.insertAll(chunk);
+                for (int i = from; i < to; i++) {
+                    recordCreated(accepted.get(i));
+                    results[acceptedRows.get(i)] = BatchRowResult.accepted(acceptedRows.get(i) + 1, accepted.get(i).getId());
+                }
+            } catch (DataIntegrityViolationException e) {
+                // The chunk was rolled back as a whole; insert its rows one by one so only the bad ones fail
+                for (int i = from; i < to; i++) {
+                    try {
+                        batchWriter.insertAll(List.of(accepted.get(i)));
+                        recordCreated(accepted.get(i));
+                        results[acceptedRows.get(i)] = BatchRowResult.accepted(acceptedRows.get(i) + 1, accepted.get(i).getId());
+                    } catch (Exception rowError) {
+                        results[acceptedRows.get(i)] = BatchRowResult.rejected(acceptedRows.get(i) + 1,
+                                List.of("Error saving row: " + rowError.getMessage()));
+                    }
+                }
+            } catch (Exception e) {
+                for (int i = from; i < to; i++) {
+                    results[acceptedRows.get(i)] = BatchRowResult.rejected(acceptedRows.get(i) + 1,
+                            List.of("Error saving row: " + e.getMessage()));
+                }
+            }
+        }
+        
+        return Arrays.asList(results);
+    }
+    
+    private List<String> validateRow(EmergencyRequestDto row, String parseError) {
+        if (row == null) {
+            return List.of("Row is empty");
+        }
+        List<String> errors = new ArrayList<>();
+        if (parseError != null) {
+            errors.add(parseError);
+        }
+        validator.validate(row).forEach(violation -> errors.add(violation.getMessage()));
+        return errors;
+    }
+    
+    private static String normalizeColumn(String name) {
+        return name.replaceAll("[^A-Za-z0-9]", "").toLowerCase();
+    }
+    
+    private static String csvValue(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+    
+    private static Double parseCoordinate(String value) {
+        return value != null ? Double.valueOf(value) : null;
+    }
+    
+    private CursorPage<EmergencyRequestSummary> fetchPage(String cursor, int limit, PageQuery query) {
+        PageCursor position = PageCursor.decode(cursor);
+        int pageSize = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        
+        List<EmergencyRequestSummary> items = query.fetch(position.getCreatedAt(), position.getId(), Limit.of(pageSize));
+        
+        // A full page means there may be more rows after the last one
+        String nextCursor = null;
+        if (items.size() == pageSize) {
+            EmergencyRequestSummary last = items.get(items.size() - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+    
+    private record LockedChange(EmergencyRequestState previous, EmergencyRequest saved) {}
+    
+    @FunctionalInterface
+    private interface PageQuery {
+        List<EmergencyRequestSummary> fetch(LocalDateTime createdAt, String id, Limit limit);
+    }
+    
+    // Keep in-memory views in step with requests that have just been written
+    private EmergencyRequest recordCreated(EmergencyRequest saved) {
+        dispatchQueue.upsert(saved);
+        statsCounters.recordCreated(saved);
+        geoIndex.upsert(saved);
+        searchIndex.index(saved);
+        incidentRollups.recordCreated(saved);
+        volunteerRecommender.recordChange(null, saved);
+        slaMonitor.track(saved);
+        collectionVersions.bump(CollectionVersions.Collection.EMERGENCY_REQUESTS);
+        eventStream.publish(EmergencyEvent.Type.CREATED, saved);
+        return saved;
+    }
+    
+    private EmergencyRequest recordUpdated(EmergencyEvent.Type type, EmergencyRequestState previous,
+                                           EmergencyRequest saved) {
+        dispatchQueue.upsert(saved);
+        statsCounters.recordUpdated(previous, saved);
+        geoIndex.upsert(saved);
+        searchIndex.index(saved);
+        incidentRollups.recordStatusChange(previous.status(), saved);
+        volunteerRecommender.recordChange(previous, saved);
+        slaMonitor.track(saved);
+        if (saved.getStatus() == Status.COMPLETED) {
+            duplicateDetector.forget(saved.getId());
+        }
+        collectionVersions.bump(CollectionVersions.Collection.EMERGENCY_REQUESTS);
+        eventStream.publish(type, saved);
+        if (saved.getStatus() == Status.COMPLETED && previous.status() != Status.COMPLETED
+                && saved.getDuplicateOf() == null) {
+            completeDuplicates(saved);
+        }
+        return saved;
+    }
+    
+    // Near-duplicate reports are never dispatched on their own, so they close with their incident;
+    // otherwise they would sit in PENDING and in the pending counts forever
+    private void completeDuplicates(EmergencyRequest original) {
+        LocalDateTime completedAt = original.getCompletedAt() != null ? original.getCompletedAt() : LocalDateTime.now();
+        for (EmergencyRequestSummary duplicate : emergencyRequestRepository.findSummariesByDuplicateOf(original.getId())) {
+            Status current = duplicate.getStatus();
+            for (int attempt = 0; attempt < STATUS_UPDATE_ATTEMPTS && current != Status.COMPLETED; attempt++) {
+                if (emergencyRequestRepository.complete(duplicate.getId(), current, Status.COMPLETED, null,
+                        completedAt, original.getCompletedBy()) > 0) {
+                    EmergencyRequest completed = emergencyRequestRepository.findById(duplicate.getId()).orElse(null);
+                    if (completed != null) {
+                        recordUpdated(EmergencyEvent.Type.COMPLETED, new EmergencyRequestState(current,
+                                completed.getUrgency(), completed.getVolunteerId()), completed);
+                    }
+                    break;
+                }
+                EmergencyRequest changed = emergencyRequestRepository.findById(duplicate.getId()).orElse(null);
+                if (changed == null) {
+                    break;
+                }
+                current = changed.getStatus();
+            }
+        }
+    }
+    
+    private void recordDeleted(EmergencyRequest deleted) {
+        dispatchQueue.remove(deleted.getId());
+        statsCounters.recordDeleted(deleted);
+        geoIndex.remove(deleted.getId());
+        searchIndex.remove(deleted.getId());
+        duplicateDetector.forget(deleted.getId());
+        volunteerRecommender.recordChange(EmergencyRequestState.of(deleted), null);
+        slaMonitor.untrack(deleted.getId());
+        collectionVersions.bump(CollectionVersions.Collection.EMERGENCY_REQUESTS);
+        eventStream.publish(EmergencyEvent.Type.DELETED, deleted);
     }
 }
@@ -0,0 +1,13 @@
+package com.animalhealthcare.service;
+
+import com.animalhealthcare.entity.EmergencyRequest;
+import com.animalhealthcare.entity.Status;
+import com.animalhealthcare.entity.Urgency;
+
+// The parts of a request that in-memory views key on, captured before a change is applied
+public record EmergencyRequestState(Status status, Urgency urgency, Long volunteerId) {
+    
+    public static EmergencyRequestState of(EmergencyRequest request) {
+        return new EmergencyRequestState(request.getStatus(), request.getUrgency(), request.getVolunteerId());
+    }
+}
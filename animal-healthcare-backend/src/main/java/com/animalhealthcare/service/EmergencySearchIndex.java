@@ -0,0 +1,171 @@
+package com.animalhealthcare.service;
+
+import com.animalhealthcare.dto.PageCursor;
+import com.animalhealthcare.entity.EmergencyRequest;
+import com.animalhealthcare.repository.EmergencyRequestRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+// Trigram inverted index over location, animal type and description.
+// Replaces leading-wildcard LIKE scans with posting-list lookups and ranks hits by how many
+// of each query term's trigrams they contain, so misspellings and partial words still match.
+@Component
+public class EmergencySearchIndex implements ApplicationRunner {
+    
+    private static final Logger logger = Logger.getLogger(EmergencySearchIndex.class.getName());
+    
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    
+    // Long free-text descriptions add little ranking signal past the first paragraph
+    private static final int MAX_DESCRIPTION_CHARS = 1000;
+    
+    // A document must contain at least half of one term's trigrams to be returned
+    private static final double MIN_SCORE = 0.5;
+    
+    @Autowired
+    private EmergencyRequestRepository emergencyRequestRepository;
+    
+    private final ConcurrentHashMap<Long, Set<String>> postings = new ConcurrentHashMap<>();
+    
+    private final ConcurrentHashMap<String, long[]> documents = new ConcurrentHashMap<>();
+    
+    // Build the index from the database in keyset-ordered batches
+    @Override
+    public void run(ApplicationArguments args) {
+        PageCursor position = PageCursor.first();
+        List<EmergencyRequest> batch;
+        do {
+            batch = emergencyRequestRepository.findBatch(position.getCreatedAt(), position.getId(),
+                    Limit.of(REBUILD_BATCH_SIZE));
+            batch.forEach(this::index);
+            if (!batch.isEmpty()) {
+                EmergencyRequest last = batch.get(batch.size() - 1);
+                position = new PageCursor(last.getCreatedAt(), last.getId());
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        logger.info("Search index built with " + documents.size() + " requests and " + postings.size() + " trigrams");
+    }
+    
+    // Index a request, touching only the posting lists whose membership actually changed
+    public void index(EmergencyRequest request) {
+        long[] trigrams = trigramsOf(request);
+        documents.compute(request.getId(), (id, previous) -> {
+            long[] old = previous != null ? previous : new long[0];
+            for (long trigram : old) {
+                if (Arrays.binarySearch(trigrams, trigram) < 0) {
+                    removePosting(trigram, id);
+                }
+            }
+            for (long trigram : trigrams) {
+                if (Arrays.binarySearch(old, trigram) < 0) {
+                    addPosting(trigram, id);
+                }
+            }
+            return trigrams;
+        });
+    }
+    
+    public void remove(String requestId) {
+        documents.computeIfPresent(requestId, (id, trigrams) -> {
+            for (long trigram : trigrams) {
+                removePosting(trigram, id);
+            }
+            return null;
+        });
+    }
+    
+    // Request ids ranked by summed per-term trigram overlap, best first
+    public List<String> search(String query, int limit) {
+        List<long[]> terms = new ArrayList<>();
+        for (String word : words(query)) {
+            terms.add(trigramsOfWords(List.of(word)));
+        }
+        
+        Map<String, Double> scores = new HashMap<>();
+        for (long[] termTrigrams : terms) {
+            double weight = 1.0 / termTrigrams.length;
+            for (long trigram : termTrigrams) {
+                Set<String> ids = postings.get(trigram);
+                if (ids != null) {
+                    for (String id : ids) {
+                        scores.merge(id, weight, Double::sum);
+                    }
+                }
+            }
+        }
+        
+        return scores.entrySet().stream()
+                .filter(entry -> entry.getValue() >= MIN_SCORE)
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+    
+    public int size() {
+        return documents.size();
+    }
+    
+    private void addPosting(long trigram, String id) {
+        postings.compute(trigram, (key, ids) -> {
+            Set<String> postingIds = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            postingIds.add(id);
+            return postingIds;
+        });
+    }
+    
+    private void removePosting(long trigram, String id) {
+        postings.computeIfPresent(trigram, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+    
+    private static long[] trigramsOf(EmergencyRequest request) {
+        String description = request.getDescription();
+        if (description != null && description.length() > MAX_DESCRIPTION_CHARS) {
+            description = description.substring(0, MAX_DESCRIPTION_CHARS);
+        }
+        List<String> words = new ArrayList<>();
+        words.addAll(words(request.getLocation()));
+        words.addAll(words(request.getAnimalType()));
+        words.addAll(words(description));
+        return trigramsOfWords(words);
+    }
+    
+    // Sorted, de-duplicated trigrams; each word is padded so short words and word edges are indexed too
+    private static long[] trigramsOfWords(List<String> words) {
+        TreeSet<Long> trigrams = new TreeSet<>();
+        for (String word : words) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2));
+            }
+        }
+        return trigrams.stream().mapToLong(Long::longValue).toArray();
+    }
+    
+    private static List<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+}
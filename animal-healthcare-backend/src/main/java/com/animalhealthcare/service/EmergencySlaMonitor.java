@@ -0,0 +1,207 @@
+package com.animalhealthcare.service;
+
+import com.animalhealthcare.entity.EmergencyRequest;
+import com.animalhealthcare.entity.Status;
+import com.animalhealthcare.entity.Urgency;
+import com.animalhealthcare.repository.EmergencyRequestRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Keeps one deadline per open request on a hashed timer wheel.
+// A PENDING request that waits past the deadline for its urgency is escalated one level, or
+// re-broadcast when it is already CRITICAL. An ACCEPTED request whose volunteer has not started
+// it within app.sla.claim-timeout-minutes is returned to PENDING. Deadlines follow request changes
+// through EmergencyRequestService, so nothing ever scans the table after startup.
+@Component
+public class EmergencySlaMonitor implements ApplicationRunner {
+
+    private static final Logger logger = Logger.getLogger(EmergencySlaMonitor.class.getName());
+
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+
+    // Resolved lazily: the service also calls into this monitor
+    @Lazy
+    @Autowired
+    private EmergencyRequestService emergencyRequestService;
+
+    @Autowired
+    private EmergencyRequestRepository emergencyRequestRepository;
+
+    @Value("${app.sla.pending-minutes.critical:10}")
+    private long criticalMinutes;
+
+    @Value("${app.sla.pending-minutes.high:30}")
+    private long highMinutes;
+
+    @Value("${app.sla.pending-minutes.medium:120}")
+    private long mediumMinutes;
+
+    @Value("${app.sla.pending-minutes.low:360}")
+    private long lowMinutes;
+
+    @Value("${app.sla.claim-timeout-minutes:60}")
+    private long claimTimeoutMinutes;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2, new SlaThreadFactory());
+
+    // 1 second ticks, 1024 buckets per round
+    private final HashedTimerWheel wheel = new HashedTimerWheel("emergency-sla-wheel", 1, TimeUnit.SECONDS, 1024, executor);
+
+    private final ConcurrentHashMap<String, Deadline> deadlines = new ConcurrentHashMap<>();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<EmergencyRequest> open = emergencyRequestRepository.findByStatusIn(EnumSet.of(Status.PENDING, Status.ACCEPTED));
+        open.forEach(this::track);
+        logger.info("SLA monitor tracking " + deadlines.size() + " open requests");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.stop();
+        executor.shutdownNow();
+    }
+
+    // (Re)arm the deadline for a request's current state; unchanged state keeps its running timer
+    public void track(EmergencyRequest request) {
+        deadlines.compute(request.getId(), (id, existing) -> {
+            if (existing != null && existing.timeout != null && existing.matches(request)) {
+                return existing;
+            }
+            if (existing != null && existing.timeout != null) {
+                existing.timeout.cancel();
+            }
+
+            Duration allowed;
+            LocalDateTime since;
+            if (request.getStatus() == Status.PENDING && request.getDuplicateOf() == null && request.getUrgency() != null) {
+                allowed = pendingAllowance(request.getUrgency());
+                // First sighting counts from submission; after an escalation or release the clock restarts
+                since = existing == null ? request.getCreatedAt() : null;
+            } else if (request.getStatus() == Status.ACCEPTED && request.getVolunteerId() != null) {
+                allowed = Duration.ofMinutes(claimTimeoutMinutes);
+                since = request.getAcceptedAt();
+            } else {
+                return null;
+            }
+
+            long delayMillis = allowed.toMillis();
+            if (since != null) {
+                delayMillis -= Duration.between(since, LocalDateTime.now()).toMillis();
+            }
+            Deadline deadline = new Deadline(request.getStatus(), request.getUrgency(), request.getVolunteerId(),
+                    request.getAcceptedAt());
+            deadline.timeout = wheel.schedule(() -> onDeadline(id, deadline), Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+            return deadline;
+        });
+    }
+
+    public void untrack(String requestId) {
+        Deadline removed = deadlines.remove(requestId);
+        if (removed != null && removed.timeout != null) {
+            removed.timeout.cancel();
+        }
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    // Runs on the SLA executor; every action is conditional on the state the deadline was set for
+    private void onDeadline(String requestId, Deadline deadline) {
+        Deadline fired = deadline.fired();
+        if (!deadlines.replace(requestId, deadline, fired)) {
+            return;
+        }
+        try {
+            EmergencyRequest current;
+            if (deadline.status == Status.ACCEPTED) {
+                current = emergencyRequestService.releaseStaleClaim(requestId, deadline.volunteerId, deadline.acceptedAt);
+            } else if (deadline.urgency == Urgency.CRITICAL) {
+                current = emergencyRequestService.rebroadcast(requestId);
+            } else {
+                current = emergencyRequestService.escalateUrgency(requestId, deadline.urgency);
+            }
+            // A re-broadcast or a lost race leaves the deadline spent; arm the next one from the current state
+            if (current != null && deadlines.get(requestId) == fired) {
+                track(current);
+            } else if (current == null) {
+                deadlines.remove(requestId, fired);
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "SLA action for " + requestId + " failed, retrying", e);
+            Deadline retry = new Deadline(deadline.status, deadline.urgency, deadline.volunteerId, deadline.acceptedAt);
+            if (deadlines.replace(requestId, fired, retry)) {
+                retry.timeout = wheel.schedule(() -> onDeadline(requestId, retry), RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private Duration pendingAllowance(Urgency urgency) {
+        return Duration.ofMinutes(switch (urgency) {
+            case CRITICAL -> criticalMinutes;
+            case HIGH -> highMinutes;
+            case MEDIUM -> mediumMinutes;
+            case LOW -> lowMinutes;
+        });
+    }
+
+    private static final class Deadline {
+
+        private final Status status;
+        private final Urgency urgency;
+        private final Long volunteerId;
+        private final LocalDateTime acceptedAt;
+        // Null once the deadline has fired
+        private volatile HashedTimerWheel.Timeout timeout;
+
+        private Deadline(Status status, Urgency urgency, Long volunteerId, LocalDateTime acceptedAt) {
+            this.status = status;
+            this.urgency = urgency;
+            this.volunteerId = volunteerId;
+            this.acceptedAt = acceptedAt;
+        }
+
+        private Deadline fired() {
+            return new Deadline(status, urgency, volunteerId, acceptedAt);
+        }
+
+        private boolean matches(EmergencyRequest request) {
+            return status == request.getStatus()
+                    && urgency == request.getUrgency()
+                    && Objects.equals(volunteerId, request.getVolunteerId())
+                    && Objects.equals(acceptedAt, request.getAcceptedAt());
+        }
+    }
+
+    private static final class SlaThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "emergency-sla-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.animalhealthcare.service;
+
+import com.animalhealthcare.entity.EmergencyRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Durable append-only spool for public emergency submissions.
+// A submission is acknowledged once its record is fsynced to the local log (appends are group
+// committed, one fsync per batch). A background drainer then writes records to the database
+// in batches and advances a checkpoint. On restart, records after the checkpoint are replayed,
+// so a database outage delays reports but never loses them.
+@Component
+public class EmergencySpool {
+
+    private static final Logger logger = Logger.getLogger(EmergencySpool.class.getName());
+
+    private static final String LOG_FILE = "emergency-requests.log";
+    private static final String CHECKPOINT_FILE = "emergency-requests.checkpoint";
+    private static final String REJECTED_FILE = "emergency-requests.rejected";
+
+    private static final int MAX_GROUP_COMMIT = 256;
+    private static final long MAX_RETRY_DELAY_MS = 30000;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.spool.dir:./data/spool}")
+    private String spoolDir;
+
+    @Value("${app.spool.drain-batch-size:500}")
+    private int drainBatchSize;
+
+    private final BlockingQueue<PendingAppend> appendQueue = new LinkedBlockingQueue<>();
+
+    private final BlockingQueue<SpooledRecord> drainQueue = new LinkedBlockingQueue<>();
+
+    // Acknowledged submissions that have not reached the database yet
+    private final ConcurrentHashMap<String, EmergencyRequest> undrained = new ConcurrentHashMap<>();
+
+    private final Object fileLock = new Object();
+
+    private FileChannel channel;
+    private Path logPath;
+    private Path checkpointPath;
+    private Path rejectedPath;
+
+    private Consumer<List<EmergencyRequest>> sink;
+
+    private volatile boolean running = true;
+    private Thread writerThread;
+    private Thread drainerThread;
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path dir = Paths.get(spoolDir);
+        Files.createDirectories(dir);
+        logPath = dir.resolve(LOG_FILE);
+        checkpointPath = dir.resolve(CHECKPOINT_FILE);
+        rejectedPath = dir.resolve(REJECTED_FILE);
+
+        channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        replay(readCheckpoint());
+        channel.position(channel.size());
+
+        writerThread = new Thread(this::writeLoop, "emergency-spool-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    // Where drained batches go; must be idempotent because replayed records may already be stored
+    public void setSink(Consumer<List<EmergencyRequest>> sink) {
+        this.sink = sink;
+    }
+
+    // Start draining once every startup runner has seeded its in-memory view from the database
+    @EventListener(ApplicationReadyEvent.class)
+    public void startDraining() {
+        drainerThread = new Thread(this::drainLoop, "emergency-spool-drainer");
+        drainerThread.setDaemon(true);
+        drainerThread.start();
+    }
+
+    // Blocks until the record is on disk, then returns; the database write happens later
+    public void append(EmergencyRequest request) {
+        byte[] line;
+        try {
+            line = (objectMapper.writeValueAsString(request) + "\n").getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not serialize emergency request", e);
+        }
+
+        PendingAppend pending = new PendingAppend(request, line, new CompletableFuture<>());
+        appendQueue.add(pending);
+        try {
+            pending.done().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while saving emergency request");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Could not save emergency request: " + e.getCause().getMessage());
+        }
+    }
+
+    public Optional<EmergencyRequest> findUndrained(String id) {
+        return Optional.ofNullable(undrained.get(id));
+    }
+
+    public int backlog() {
+        return undrained.size();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+        }
+        if (drainerThread != null) {
+            drainerThread.interrupt();
+        }
+        synchronized (fileLock) {
+            channel.close();
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> group = new ArrayList<>();
+        while (running) {
+            try {
+                group.add(appendQueue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            appendQueue.drainTo(group, MAX_GROUP_COMMIT - 1);
+            commit(group);
+            group.clear();
+        }
+    }
+
+    // Write a group of records and fsync once for all of them
+    private void commit(List<PendingAppend> group) {
+        List<SpooledRecord> written = new ArrayList<>(group.size());
+        synchronized (fileLock) {
+            long start = 0;
+            try {
+                start = channel.position();
+                for (PendingAppend pending : group) {
+                    ByteBuffer buffer = ByteBuffer.wrap(pending.line());
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    written.add(new SpooledRecord(pending.request(), channel.position()));
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Spool write failed", e);
+                truncateQuietly(start);
+                group.forEach(pending -> pending.done().completeExceptionally(e));
+                return;
+            }
+        }
+
+        for (SpooledRecord record : written) {
+            undrained.put(record.request().getId(), record.request());
+            drainQueue.add(record);
+        }
+        group.forEach(pending -> pending.done().complete(null));
+    }
+
+    private void drainLoop() {
+        List<SpooledRecord> batch = new ArrayList<>();
+        long retryDelay = 1000;
+        while (running) {
+            try {
+                if (batch.isEmpty()) {
+                    batch.add(drainQueue.take());
+                    drainQueue.drainTo(batch, drainBatchSize - 1);
+                }
+
+                deliver(batch);
+                batch.forEach(record -> undrained.remove(record.request().getId()));
+                advanceCheckpoint(batch.get(batch.size() - 1).endOffset());
+                batch.clear();
+                retryDelay = 1000;
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                // Database unavailable: keep the batch and try again with backoff
+                logger.warning("Spool drain failed, retrying in " + retryDelay + "ms: " + e.getMessage());
+                try {
+                    Thread.sleep(retryDelay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    private void deliver(List<SpooledRecord> batch) throws IOException {
+        List<EmergencyRequest> requests = batch.stream().map(SpooledRecord::request).toList();
+        try {
+            sink.accept(requests);
+        } catch (DataIntegrityViolationException e) {
+            // One bad record must not hold up the rest; store row by row and set aside the ones the database rejects
+            for (EmergencyRequest request : requests) {
+                try {
+                    sink.accept(List.of(request));
+                } catch (DataIntegrityViolationException rejected) {
+                    logger.severe("Emergency request " + request.getId() + " rejected by the database, moved to "
+                            + rejectedPath + ": " + rejected.getMessage());
+                    Files.writeString(rejectedPath, objectMapper.writeValueAsString(request) + "\n",
+                            StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+            }
+        }
+    }
+
+    // Record how far the log has been drained; reset the log once everything in it is stored
+    private void advanceCheckpoint(long offset) throws IOException {
+        synchronized (fileLock) {
+            if (offset == channel.size()) {
+                channel.truncate(0);
+                writeCheckpoint(0);
+            } else {
+                writeCheckpoint(offset);
+            }
+        }
+    }
+
+    // Queue every complete record after the checkpoint; a torn final line from a crash is cut off
+    private void replay(long checkpoint) throws IOException {
+        long offset = Math.min(checkpoint, channel.size());
+        long lastComplete = offset;
+        int replayed = 0;
+
+        InputStream in = Channels.newInputStream(channel.position(offset));
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                offset++;
+                if (buffer[i] != '\n') {
+                    line.write(buffer[i]);
+                    continue;
+                }
+                EmergencyRequest request = objectMapper.readValue(line.toByteArray(), EmergencyRequest.class);
+                undrained.put(request.getId(), request);
+                drainQueue.add(new SpooledRecord(request, offset));
+                lastComplete = offset;
+                line.reset();
+                replayed++;
+            }
+        }
+
+        if (lastComplete < channel.size()) {
+            logger.warning("Discarding incomplete spool record at offset " + lastComplete);
+            channel.truncate(lastComplete);
+        }
+        if (replayed > 0) {
+            logger.info("Replaying " + replayed + " spooled emergency requests");
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointPath)) {
+            return 0;
+        }
+        String value = Files.readString(checkpointPath, StandardCharsets.UTF_8).trim();
+        return value.isEmpty() ? 0 : Long.parseLong(value);
+    }
+
+    private void writeCheckpoint(long offset) throws IOException {
+        Path temp = checkpointPath.resolveSibling(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temp, Long.toString(offset), StandardCharsets.UTF_8);
+        Files.move(temp, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void truncateQuietly(long size) {
+        try {
+            channel.truncate(size);
+            channel.position(size);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Could not roll back partial spool write", e);
+        }
+    }
+
+    private record PendingAppend(EmergencyRequest request, byte[] line, CompletableFuture<Void> done) {}
+
+    private record SpooledRecord(EmergencyRequest request, long endOffset) {}
+}
@@ -0,0 +1,107 @@
+package com.animalhealthcare.service;
+
+import com.animalhealthcare.entity.EmergencyRequest;
+import com.animalhealthcare.entity.Status;
+import com.animalhealthcare.entity.Urgency;
+import com.animalhealthcare.repository.EmergencyArchiveRepository;
+import com.animalhealthcare.repository.EmergencyRequestRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+
+// Request counts by status and urgency, seeded once with GROUP BY queries and then
+// maintained by EmergencyRequestService so the stats endpoints never touch the database.
+// Seeding runs while the context is being built, before the web server accepts requests and
+// before the spool drainer starts, so no write can land between the seed and the first delta.
+@Component
+public class EmergencyStatsCounters {
+    
+    private static final Logger logger = Logger.getLogger(EmergencyStatsCounters.class.getName());
+    
+    @Autowired
+    private EmergencyRequestRepository emergencyRequestRepository;
+    
+    @Autowired
+    private EmergencyArchiveRepository archiveRepository;
+    
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLongArray byStatus = new AtomicLongArray(Status.values().length);
+    private final AtomicLongArray byUrgency = new AtomicLongArray(Urgency.values().length);
+    
+    @PostConstruct
+    public void seed() {
+        for (Object[] row : emergencyRequestRepository.countGroupedByStatus()) {
+            if (row[0] != null) {
+                byStatus.addAndGet(((Status) row[0]).ordinal(), (Long) row[1]);
+            }
+            total.addAndGet((Long) row[1]);
+        }
+        for (Object[] row : emergencyRequestRepository.countGroupedByUrgency()) {
+            if (row[0] != null) {
+                byUrgency.addAndGet(((Urgency) row[0]).ordinal(), (Long) row[1]);
+            }
+        }
+        // Archived requests still count towards the totals
+        archiveRepository.countGroupedByStatus().forEach((status, count) -> {
+            byStatus.addAndGet(status.ordinal(), count);
+            total.addAndGet(count);
+        });
+        archiveRepository.countGroupedByUrgency().forEach((urgency, count) ->
+                byUrgency.addAndGet(urgency.ordinal(), count));
+        logger.info("Emergency counters seeded with " + total.get() + " requests");
+    }
+    
+    public void recordCreated(EmergencyRequest request) {
+        total.incrementAndGet();
+        adjust(request.getStatus(), request.getUrgency(), 1);
+    }
+    
+    public void recordUpdated(EmergencyRequestState previous, EmergencyRequest request) {
+        if (previous.status() != request.getStatus()) {
+            adjustStatus(previous.status(), -1);
+            adjustStatus(request.getStatus(), 1);
+        }
+        if (previous.urgency() != request.getUrgency()) {
+            adjustUrgency(previous.urgency(), -1);
+            adjustUrgency(request.getUrgency(), 1);
+        }
+    }
+    
+    public void recordDeleted(EmergencyRequest request) {
+        total.decrementAndGet();
+        adjust(request.getStatus(), request.getUrgency(), -1);
+    }
+    
+    public long getTotal() {
+        return total.get();
+    }
+    
+    public long countByStatus(Status status) {
+        return byStatus.get(status.ordinal());
+    }
+    
+    public long countByUrgency(Urgency urgency) {
+        return byUrgency.get(urgency.ordinal());
+    }
+    
+    private void adjust(Status status, Urgency urgency, long delta) {
+        adjustStatus(status, delta);
+        adjustUrgency(urgency, delta);
+    }
+    
+    private void adjustStatus(Status status, long delta) {
+        if (status != null) {
+            byStatus.addAndGet(status.ordinal(), delta);
+        }
+    }
+    
+    private void adjustUrgency(Urgency urgency, long delta) {
+        if (urgency != null) {
+            byUrgency.addAndGet(urgency.ordinal(), delta);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.animalhealthcare.service;
+
+import com.animalhealthcare.entity.Status;
+import com.animalhealthcare.repository.ExportRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+// Bulk exports of emergency requests and chat transcripts as NDJSON or CSV.
+// Rows go from the JDBC cursor through the encoder (and gzip, when the client accepts it) straight
+// to the response, so memory use does not depend on the row count. At most app.export.max-concurrent
+// exports read from the database at once, which keeps them from taking the connections and CPU
+// that live requests need; the others wait for a slot.
+@Service
+public class ExportService {
+
+    private static final Logger logger = Logger.getLogger(ExportService.class.getName());
+
+    private static final int GZIP_BUFFER_BYTES = 64 * 1024;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = MediaType.parseMediaType(mediaType + ";charset=UTF-8");
+            this.extension = extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported export format: " + value + " (use ndjson or csv)");
+            }
+        }
+    }
+
+    @Autowired
+    private ExportRepository exportRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.export.max-concurrent:2}")
+    private int maxConcurrent;
+
+    private Semaphore slots;
+
+    @PostConstruct
+    public void init() {
+        slots = new Semaphore(maxConcurrent, true);
+    }
+
+    // Lets callers turn requests away up front instead of queueing behind running exports
+    public boolean isBusy() {
+        return slots.availablePermits() == 0;
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportEmergencyRequests(Format format, LocalDateTime from,
+                                                                         LocalDateTime to, Status status,
+                                                                         boolean includeArchived,
+                                                                         String acceptEncoding) {
+        return response("emergency-requests", format, acceptEncoding,
+                extractor -> exportRepository.streamEmergencyRequests(from, to, status, includeArchived, extractor));
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportChatTranscript(Long chatRoomId, Format format,
+                                                                      LocalDateTime from, LocalDateTime to,
+                                                                      String acceptEncoding) {
+        return response("chat-room-" + chatRoomId, format, acceptEncoding,
+                extractor -> exportRepository.streamChatMessages(chatRoomId, from, to, extractor));
+    }
+
+    private ResponseEntity<StreamingResponseBody> response(String name, Format format, String acceptEncoding,
+                                                           Function<ResultSetExtractor<Long>, Long> query) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Export cancelled while waiting for a slot");
+            }
+            try {
+                OutputStream target = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_BYTES) : out;
+                long started = System.nanoTime();
+                Long rows = query.apply(rs -> {
+                    try {
+                        return format == Format.NDJSON ? writeNdjson(rs, target) : writeCsv(rs, target);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                if (target instanceof GZIPOutputStream gzipStream) {
+                    gzipStream.finish();
+                }
+                out.flush();
+                logger.info("Exported " + rows + " rows of " + name + " as " + format + " in "
+                        + (System.nanoTime() - started) / 1_000_000 + " ms");
+            } finally {
+                slots.release();
+            }
+        };
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(format.mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.extension).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(body);
+    }
+
+    // One JSON object per line, keyed by column label
+    private long writeNdjson(ResultSet rs, OutputStream out) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        long rows = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (rs.next()) {
+                generator.writeStartObject();
+                for (int i = 1; i <= columns; i++) {
+                    generator.writeFieldName(meta.getColumnLabel(i));
+                    generator.writeObject(value(rs, i));
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    // RFC 4180 CSV with a header row of column labels
+    private long writeCsv(ResultSet rs, OutputStream out) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        for (int i = 1; i <= columns; i++) {
+            if (i > 1) {
+                writer.write(',');
+            }
+            writer.write(meta.getColumnLabel(i));
+        }
+        writer.write("\r\n");
+
+        long rows = 0;
+        while (rs.next()) {
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = value(rs, i);
+                if (value != null) {
+                    writer.write(csvField(value));
+                }
+            }
+            writer.write("\r\n");
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : value;
+    }
+
+    private static String csvField(Object value) {
+        String text = value.toString();
+        // User-entered text starting like a formula would be evaluated by spreadsheet apps; a leading
+        // tab or carriage return is stripped by some of them, exposing a formula behind it
+        if (value instanceof String && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -0,0 +1,218 @@
+package com.animalhealthcare.service;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Hashed timer wheel: a ring of buckets advanced by one worker thread every tick. Scheduling and
+// cancelling are O(1) queue operations, and each tick only touches the timers in one bucket, so
+// hundreds of thousands of pending timers cost nothing until they are due. Deadlines are accurate
+// to one tick. Expired tasks run on the given executor, never on the wheel thread.
+public class HashedTimerWheel {
+
+    private static final Logger logger = Logger.getLogger(HashedTimerWheel.class.getName());
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor executor;
+
+    private final Queue<Timeout> additions = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancellations = new ConcurrentLinkedQueue<>();
+
+    private final Thread worker;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean stopped;
+
+    private long startTime;
+    private long tick;
+
+    public HashedTimerWheel(String name, long tickDuration, TimeUnit unit, int ticksPerWheel, Executor executor) {
+        if (Integer.bitCount(ticksPerWheel) != 1) {
+            throw new IllegalArgumentException("ticksPerWheel must be a power of two");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = new Bucket[ticksPerWheel];
+        for (int i = 0; i < ticksPerWheel; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = ticksPerWheel - 1;
+        this.executor = executor;
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (started.compareAndSet(false, true)) {
+            startTime = System.nanoTime();
+            worker.start();
+        }
+        Timeout timeout = new Timeout(this, task, System.nanoTime() + Math.max(0, unit.toNanos(delay)));
+        additions.add(timeout);
+        return timeout;
+    }
+
+    public void stop() {
+        stopped = true;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (!stopped) {
+            long deadline = startTime + (tick + 1) * tickNanos;
+            long sleepNanos = deadline - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (stopped) {
+                        return;
+                    }
+                }
+                continue;
+            }
+
+            processCancellations();
+            transferAdditions();
+            wheel[(int) (tick & mask)].expire(System.nanoTime());
+            tick++;
+        }
+    }
+
+    private void transferAdditions() {
+        // Bounded per tick so a burst of schedules cannot starve expiry
+        for (int i = 0; i < 100000; i++) {
+            Timeout timeout = additions.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state != Timeout.PENDING) {
+                continue;
+            }
+            long ticks = Math.max((timeout.deadline - startTime) / tickNanos, tick);
+            timeout.remainingRounds = (ticks - tick) / wheel.length;
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void processCancellations() {
+        Timeout timeout;
+        while ((timeout = cancellations.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void runExpired(Timeout timeout) {
+        try {
+            executor.execute(timeout.task);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Timer task rejected", e);
+        }
+    }
+
+    public static final class Timeout {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final HashedTimerWheel owner;
+        private final Runnable task;
+        private final long deadline;
+        private volatile int state = PENDING;
+
+        // Owned by the wheel thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(HashedTimerWheel owner, Runnable task, long deadline) {
+            this.owner = owner;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        // Returns false if the task already ran or was cancelled
+        public boolean cancel() {
+            synchronized (this) {
+                if (state != PENDING) {
+                    return false;
+                }
+                state = CANCELLED;
+            }
+            owner.cancellations.add(this);
+            return true;
+        }
+
+        private synchronized boolean markExpired() {
+            if (state != PENDING) {
+                return false;
+            }
+            state = EXPIRED;
+            return true;
+        }
+    }
+
+    // Doubly linked list of timeouts, touched only by the wheel thread
+    private final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void expire(long now) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    if (timeout.deadline <= now && timeout.markExpired()) {
+                        runExpired(timeout);
+                    } else if (timeout.state == Timeout.PENDING) {
+                        // Landed in this bucket slightly early; run it on the next pass
+                        additions.add(timeout);
+                    }
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.animalhealthcare.service;
+
+import com.animalhealthcare.dto.ApiResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+// Remembers responses to requests sent with an Idempotency-Key header so client retries
+// get the original response instead of creating another row.
+// Lookups of a known key are a plain map read; the first request for a key claims it with
+// putIfAbsent and concurrent retries wait for its result. Only successful responses are kept,
+// so a failed attempt can be retried with the same key. A key reused with a different payload
+// (fingerprint) is rejected with 422 instead of replaying someone else's response. Entries expire
+// after a TTL and the oldest are evicted once the store is full.
+@Component
+public class IdempotencyStore {
+
+    private static final Logger logger = Logger.getLogger(IdempotencyStore.class.getName());
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long IN_FLIGHT_WAIT_SECONDS = 30;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${app.idempotency.max-entries:100000}")
+    private int maxEntries;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Insertion order, used to evict the oldest entries when the store is full. Each slot names the
+    // entry it was queued for, so a slot left behind by a removed entry cannot evict a newer one.
+    private final ConcurrentLinkedQueue<Slot> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    // Run the action at most once per scope and key; without a key the action always runs
+    public ResponseEntity<?> execute(String scope, String idempotencyKey, Supplier<ResponseEntity<?>> action) {
+        return execute(scope, idempotencyKey, null, action);
+    }
+
+    // As above; a retry must also carry the same fingerprint (typically a hash of the request body)
+    public ResponseEntity<?> execute(String scope, String idempotencyKey, String fingerprint,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters"));
+        }
+
+        String key = scope + ":" + idempotencyKey;
+        while (true) {
+            Entry existing = entries.get(key);
+            if (existing != null && existing.isExpired()) {
+                entries.remove(key, existing);
+                continue;
+            }
+            if (existing != null) {
+                if (!Objects.equals(existing.fingerprint, fingerprint)) {
+                    return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                            .body(ApiResponse.error("This " + HEADER + " was already used for a different request",
+                                    HttpStatus.UNPROCESSABLE_ENTITY.value()));
+                }
+                return replay(existing);
+            }
+
+            Entry claimed = new Entry(System.nanoTime() + TimeUnit.MINUTES.toNanos(ttlMinutes), fingerprint);
+            if (entries.putIfAbsent(key, claimed) != null) {
+                continue;
+            }
+            insertionOrder.add(new Slot(key, claimed));
+            evictOverflow();
+            return runAndRecord(key, claimed, action);
+        }
+    }
+
+    // Drop expired entries so idle keys do not hold memory until they are evicted
+    @Scheduled(fixedRate = 60000)
+    public void purgeExpired() {
+        entries.values().removeIf(Entry::isExpired);
+        insertionOrder.removeIf(slot -> entries.get(slot.key()) != slot.entry());
+    }
+
+    // SHA-256 over the JSON form of the parts, for use as a fingerprint or a privacy-preserving scope
+    public String fingerprint(Object... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object part : parts) {
+                digest.update(objectMapper.writeValueAsBytes(part));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new RuntimeException("Could not fingerprint request", e);
+        }
+    }
+
+    private ResponseEntity<?> runAndRecord(String key, Entry claimed, Supplier<ResponseEntity<?>> action) {
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            entries.remove(key, claimed);
+            claimed.response.completeExceptionally(e);
+            throw e;
+        }
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            // Not remembered: the client may fix the problem and retry with the same key
+            entries.remove(key, claimed);
+            claimed.response.complete(null);
+            return response;
+        }
+
+        try {
+            claimed.response.complete(new StoredResponse(response.getStatusCode().value(),
+                    objectMapper.writeValueAsBytes(response.getBody())));
+        } catch (JsonProcessingException e) {
+            logger.warning("Could not store response for idempotency key: " + e.getMessage());
+            entries.remove(key, claimed);
+            claimed.response.complete(null);
+        }
+        return response;
+    }
+
+    private ResponseEntity<?> replay(Entry entry) {
+        StoredResponse stored;
+        try {
+            stored = entry.response.get(IN_FLIGHT_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the original request");
+        } catch (ExecutionException | TimeoutException e) {
+            stored = null;
+        }
+
+        if (stored == null) {
+            // The original attempt failed or is still running; let the client retry later
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("A request with this " + HEADER + " did not complete, please retry"));
+        }
+        return ResponseEntity.status(stored.status())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.body());
+    }
+
+    private void evictOverflow() {
+        while (entries.size() > maxEntries) {
+            Slot oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            entries.remove(oldest.key(), oldest.entry());
+        }
+    }
+
+    private static final class Entry {
+
+        private final long expiresAt;
+        private final String fingerprint;
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+        private Entry(long expiresAt, String fingerprint) {
+            this.expiresAt = expiresAt;
+            this.fingerprint = fingerprint;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+
+    private record Slot(String key, Entry entry) {}
+
+    private record StoredResponse(int status, byte[] body) {}
+}
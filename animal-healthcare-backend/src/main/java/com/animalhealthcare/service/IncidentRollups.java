@@ -0,0 +1,318 @@
+package com.animalhealthcare.service;
+
+import com.animalhealthcare.dto.IncidentAnalytics;
+import com.animalhealthcare.entity.EmergencyRequest;
+import com.animalhealthcare.entity.Status;
+import com.animalhealthcare.repository.IncidentRollupRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+// Hourly and daily incident counts by urgency, animal type and status.
+// Each granularity is a ring buffer of fixed-size time buckets. Every bucket also stores the running
+// totals from before it, so the counts for any range are last.before + last.counts - first.before,
+// independent of how many buckets the range covers. Buckets are flushed to incident_rollups on an
+// interval and reloaded at startup.
+@Component
+public class IncidentRollups implements ApplicationRunner {
+
+    private static final Logger logger = Logger.getLogger(IncidentRollups.class.getName());
+
+    // Free-text animal types beyond this many distinct values are counted as "other"
+    private static final int MAX_ANIMAL_TYPES = 100;
+    private static final int MAX_ANIMAL_KEY_LENGTH = 100;
+
+    static final String CREATED = "created";
+    static final String URGENCY_PREFIX = "urgency:";
+    static final String STATUS_PREFIX = "status:";
+    static final String ANIMAL_PREFIX = "animal:";
+
+    public enum Granularity {
+        HOUR(24 * 14),
+        DAY(400);
+
+        private final int buckets;
+
+        Granularity(int buckets) {
+            this.buckets = buckets;
+        }
+
+        public long indexOf(LocalDateTime time) {
+            return this == HOUR
+                    ? Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 3600)
+                    : time.toLocalDate().toEpochDay();
+        }
+
+        public LocalDateTime startOf(long index) {
+            return LocalDateTime.ofEpochSecond(this == HOUR ? index * 3600 : index * 86400, 0, ZoneOffset.UTC);
+        }
+    }
+
+    @Autowired
+    private IncidentRollupRepository rollupRepository;
+
+    private final Map<Granularity, Series> series = new HashMap<>();
+
+    private final Set<String> animalTypes = new HashSet<>();
+
+    // Nothing is written back until persisted buckets are loaded, so early events cannot overwrite them
+    private volatile boolean loaded;
+
+    public IncidentRollups() {
+        for (Granularity granularity : Granularity.values()) {
+            series.put(granularity, new Series(granularity));
+        }
+    }
+
+    // Reload persisted buckets, or rebuild what history allows the first time
+    @Override
+    public void run(ApplicationArguments args) {
+        rollupRepository.createTableIfMissing();
+        if (rollupRepository.isEmpty()) {
+            backfill();
+            loaded = true;
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (this) {
+            for (Series s : series.values()) {
+                Set<Long> recordedBeforeLoad = new HashSet<>(s.dirty);
+                LocalDateTime since = s.granularity.startOf(s.granularity.indexOf(now) - s.granularity.buckets + 1);
+                for (IncidentRollupRepository.Row row : rollupRepository.findSince(s.granularity.name(), since)) {
+                    if (row.metric().startsWith(ANIMAL_PREFIX)) {
+                        animalTypes.add(row.metric().substring(ANIMAL_PREFIX.length()));
+                    }
+                    s.add(s.granularity.indexOf(row.bucketStart()), row.metric(), row.count());
+                }
+                s.dirty.retainAll(recordedBeforeLoad);
+            }
+        }
+        loaded = true;
+        logger.info("Incident rollups loaded");
+    }
+
+    public synchronized void recordCreated(EmergencyRequest request) {
+        LocalDateTime time = request.getCreatedAt() != null ? request.getCreatedAt() : LocalDateTime.now();
+        List<String> metrics = new ArrayList<>(4);
+        metrics.add(CREATED);
+        if (request.getUrgency() != null) {
+            metrics.add(URGENCY_PREFIX + request.getUrgency().name());
+        }
+        if (request.getStatus() != null) {
+            metrics.add(STATUS_PREFIX + request.getStatus().name());
+        }
+        metrics.add(ANIMAL_PREFIX + animalKey(request.getAnimalType()));
+        for (Series s : series.values()) {
+            long index = s.granularity.indexOf(time);
+            metrics.forEach(metric -> s.add(index, metric, 1));
+        }
+    }
+
+    // Status changes are counted in the bucket in which they happen
+    public synchronized void recordStatusChange(Status previous, EmergencyRequest request) {
+        if (request.getStatus() == null || request.getStatus() == previous) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Series s : series.values()) {
+            s.add(s.granularity.indexOf(now), STATUS_PREFIX + request.getStatus().name(), 1);
+        }
+    }
+
+    // Counts for the buckets containing from through to; ranges are clipped to the retained buckets
+    public synchronized IncidentAnalytics query(Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        Series s = series.get(granularity);
+        Map<String, Long> totals = s.sum(granularity.indexOf(from), granularity.indexOf(to));
+
+        IncidentAnalytics analytics = new IncidentAnalytics(granularity.name(), granularity.startOf(granularity.indexOf(from)),
+                granularity.startOf(granularity.indexOf(to) + 1));
+        totals.forEach((metric, count) -> {
+            if (metric.equals(CREATED)) {
+                analytics.setCreated(count);
+            } else if (metric.startsWith(URGENCY_PREFIX)) {
+                analytics.getByUrgency().put(metric.substring(URGENCY_PREFIX.length()), count);
+            } else if (metric.startsWith(STATUS_PREFIX)) {
+                analytics.getByStatus().put(metric.substring(STATUS_PREFIX.length()), count);
+            } else if (metric.startsWith(ANIMAL_PREFIX)) {
+                analytics.getByAnimalType().put(metric.substring(ANIMAL_PREFIX.length()), count);
+            }
+        });
+        return analytics;
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.flush-interval-ms:60000}")
+    public void flush() {
+        if (!loaded) {
+            return;
+        }
+        List<IncidentRollupRepository.Row> rows = new ArrayList<>();
+        Map<Series, Set<Long>> flushed = new HashMap<>();
+        synchronized (this) {
+            for (Series s : series.values()) {
+                for (long index : s.dirty) {
+                    Slot slot = s.slot(index);
+                    if (slot == null) {
+                        continue;
+                    }
+                    LocalDateTime start = s.granularity.startOf(index);
+                    slot.counts.forEach((metric, count) ->
+                            rows.add(new IncidentRollupRepository.Row(s.granularity.name(), start, metric, count)));
+                }
+                flushed.put(s, new HashSet<>(s.dirty));
+                s.dirty.clear();
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            rollupRepository.upsertAll(rows);
+        } catch (RuntimeException e) {
+            logger.warning("Could not persist incident rollups, will retry: " + e.getMessage());
+            synchronized (this) {
+                flushed.forEach((s, indexes) -> s.dirty.addAll(indexes));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // First start: rebuild creations, acceptances and completions from the requests and archive tables
+    private void backfill() {
+        LocalDateTime since = Granularity.DAY.startOf(Granularity.DAY.indexOf(LocalDateTime.now()) - Granularity.DAY.buckets + 1);
+        List<IncidentRollupRepository.HistoryRow> history = new ArrayList<>(rollupRepository.findHistorySince(since));
+        history.sort(Comparator.comparing(IncidentRollupRepository.HistoryRow::hour));
+
+        synchronized (this) {
+            for (IncidentRollupRepository.HistoryRow row : history) {
+                List<String> metrics = new ArrayList<>(4);
+                if (row.status() == null) {
+                    // The same metrics recordCreated adds for a new request
+                    metrics.add(CREATED);
+                    if (row.urgency() != null) {
+                        metrics.add(URGENCY_PREFIX + row.urgency());
+                    }
+                    metrics.add(STATUS_PREFIX + Status.PENDING.name());
+                    metrics.add(ANIMAL_PREFIX + animalKey(row.animalType()));
+                } else {
+                    metrics.add(STATUS_PREFIX + row.status().name());
+                }
+                for (Series s : series.values()) {
+                    long index = s.granularity.indexOf(row.hour());
+                    metrics.forEach(metric -> s.add(index, metric, row.count()));
+                }
+            }
+        }
+        logger.info("Incident rollups backfilled from " + history.size() + " history rows");
+    }
+
+    private String animalKey(String animalType) {
+        String key = animalType == null || animalType.isBlank() ? "unknown" : animalType.trim().toLowerCase();
+        if (key.length() > MAX_ANIMAL_KEY_LENGTH) {
+            key = key.substring(0, MAX_ANIMAL_KEY_LENGTH);
+        }
+        if (animalTypes.contains(key)) {
+            return key;
+        }
+        if (animalTypes.size() >= MAX_ANIMAL_TYPES) {
+            return "other";
+        }
+        animalTypes.add(key);
+        return key;
+    }
+
+    private static final class Series {
+
+        private final Granularity granularity;
+        private final Slot[] ring;
+        private final Map<String, Long> running = new HashMap<>();
+        private final Set<Long> dirty = new HashSet<>();
+        private long latest = Long.MIN_VALUE;
+
+        private Series(Granularity granularity) {
+            this.granularity = granularity;
+            this.ring = new Slot[granularity.buckets];
+        }
+
+        private Slot slot(long index) {
+            Slot slot = ring[(int) Math.floorMod(index, (long) ring.length)];
+            return slot != null && slot.index == index ? slot : null;
+        }
+
+        private void add(long index, String metric, long delta) {
+            if (latest == Long.MIN_VALUE || index > latest) {
+                advanceTo(index);
+            }
+            Slot target = slot(index);
+            if (target == null) {
+                // Older than the retained buckets
+                return;
+            }
+            target.counts.merge(metric, delta, Long::sum);
+            // Late arrivals shift the running totals of every later bucket
+            for (long i = index + 1; i <= latest; i++) {
+                slot(i).before.merge(metric, delta, Long::sum);
+            }
+            running.merge(metric, delta, Long::sum);
+            dirty.add(index);
+        }
+
+        // Open empty buckets up to index; they start from the current running totals
+        private void advanceTo(long index) {
+            long first = latest == Long.MIN_VALUE ? index - ring.length + 1 : Math.max(latest + 1, index - ring.length + 1);
+            for (long i = first; i <= index; i++) {
+                ring[(int) Math.floorMod(i, (long) ring.length)] = new Slot(i, new HashMap<>(running));
+            }
+            latest = index;
+        }
+
+        private Map<String, Long> sum(long from, long to) {
+            if (latest == Long.MIN_VALUE) {
+                return Map.of();
+            }
+            long start = Math.max(from, latest - ring.length + 1);
+            long end = Math.min(to, latest);
+            if (start > end) {
+                return Map.of();
+            }
+            Slot first = slot(start);
+            Slot last = slot(end);
+
+            Map<String, Long> totals = new HashMap<>(last.before);
+            last.counts.forEach((metric, count) -> totals.merge(metric, count, Long::sum));
+            first.before.forEach((metric, count) -> totals.merge(metric, -count, Long::sum));
+            totals.values().removeIf(count -> count == 0);
+            return totals;
+        }
+    }
+
+    private static final class Slot {
+
+        private final long index;
+        private final Map<String, Long> before;
+        private final Map<String, Long> counts = new HashMap<>();
+
+        private Slot(long index, Map<String, Long> before) {
+            this.index = index;
+            this.before = before;
+        }
+    }
+}
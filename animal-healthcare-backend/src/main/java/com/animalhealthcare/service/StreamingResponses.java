@@ -0,0 +1,104 @@
+package com.animalhealthcare.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Writes large result sets straight from a database cursor to the response, one row at a time.
+// The row stream is opened inside a read-only transaction on the async response thread and closed
+// with it, so memory stays flat however many rows there are. Errors after the first byte can no
+// longer change the status code; they abort the response instead. Each stream holds a connection
+// and a request thread for its whole length, so only max-concurrent run at once, as for exports.
+@Component
+public class StreamingResponses {
+
+    // Push what has been written to the client every this many rows
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.streaming.max-concurrent:4}")
+    private int maxConcurrent;
+
+    private Semaphore slots;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private ObjectWriter rowWriter;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        slots = new Semaphore(maxConcurrent, true);
+        // The generator is flushed in batches below, not after every row
+        rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // Lets callers answer 429 up front instead of queueing behind running streams
+    public boolean isBusy() {
+        return slots.availablePermits() == 0;
+    }
+
+    // The same envelope as ApiResponse.success(message, list), with data written as the rows arrive
+    public <T> StreamingResponseBody json(String message, Supplier<Stream<T>> rows) {
+        return out -> {
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Stream cancelled while waiting for a slot");
+            }
+            try {
+                write(out, message, rows);
+            } finally {
+                slots.release();
+            }
+        };
+    }
+
+    private <T> void write(OutputStream out, String message, Supplier<Stream<T>> rows) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<T> stream = rows.get();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeBooleanField("success", true);
+                generator.writeStringField("message", message);
+                generator.writeArrayFieldStart("data");
+                int written = 0;
+                for (Iterator<T> it = stream.iterator(); it.hasNext(); ) {
+                    rowWriter.writeValue(generator, it.next());
+                    if (++written % FLUSH_EVERY_ROWS == 0) {
+                        generator.flush();
+                    }
+                }
+                generator.writeEndArray();
+                generator.writeNumberField("status", 0);
+                generator.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
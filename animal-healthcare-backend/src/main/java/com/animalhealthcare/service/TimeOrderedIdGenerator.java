@@ -0,0 +1,99 @@
+package com.animalhealthcare.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+// IDs of the form EMR-0ABCDEFGHJKMN: 42 bits of milliseconds since 2024-01-01, a 10-bit node number
+// and a 12-bit per-millisecond sequence, written as 13 Crockford base32 characters. The alphabet is in
+// ASCII order, so IDs sort by creation time as plain strings and new rows land at the right-hand
+// end of the primary key index. Generation is a lock-free compare-and-set on one counter; a
+// millisecond that runs out of sequence numbers borrows the next one instead of waiting, and a
+// clock that steps backwards keeps counting from the last value issued, so IDs never repeat
+// within a node.
+@Component
+public class TimeOrderedIdGenerator implements EmergencyIdGenerator {
+
+    private static final Logger logger = Logger.getLogger(TimeOrderedIdGenerator.class.getName());
+
+    private static final String PREFIX = "EMR-";
+
+    private static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+
+    // -1 derives the node from the host name and process id
+    @Value("${app.ids.node-id:-1}")
+    private long configuredNodeId;
+
+    private long nodeId;
+
+    // Last issued (millis << SEQUENCE_BITS | sequence)
+    private final AtomicLong state = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (configuredNodeId > MAX_NODE) {
+            throw new IllegalStateException("app.ids.node-id must be between 0 and " + MAX_NODE);
+        }
+        nodeId = configuredNodeId >= 0 ? configuredNodeId : derivedNodeId();
+        logger.info("Emergency request IDs use node " + nodeId);
+    }
+
+    @Override
+    public String nextId() {
+        long now = System.currentTimeMillis() - EPOCH_MILLIS;
+        long next;
+        while (true) {
+            long last = state.get();
+            long lastMillis = last >>> SEQUENCE_BITS;
+            if (now > lastMillis) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // Same millisecond, or the clock went back: continue from the last value.
+                // Overflowing the sequence carries into the millisecond field.
+                next = last + 1;
+            }
+            if (state.compareAndSet(last, next)) {
+                break;
+            }
+        }
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+        return PREFIX + encode((millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence);
+    }
+
+    // Fixed width, most significant character first; the first character carries the top 4 bits
+    private static String encode(long value) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    private static long derivedNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        String identity = host + "/" + ManagementFactory.getRuntimeMXBean().getName();
+        return (identity.hashCode() & 0x7fffffffL) % (MAX_NODE + 1);
+    }
+}
@@ -1,6 +1,7 @@
 package com.animalhealthcare.service;
 
 import com.animalhealthcare.dto.RegisterRequest;
+import com.animalhealthcare.dto.UserSummary;
 import com.animalhealthcare.entity.Role;
 import com.animalhealthcare.entity.User;
 import com.animalhealthcare.repository.UserRepository;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
@@ -20,6 +22,12 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private VolunteerRecommender volunteerRecommender;
+    
+    @Autowired
+    private CollectionVersions collectionVersions;
+    
     public User createUser(RegisterRequest registerRequest) {
         if (userRepository.existsByUsername(registerRequest.getUsername())) {
             throw new RuntimeException("Error: Username is already taken!");
@@ -43,7 +51,10 @@ public class UserService {
             user.setRole(Role.USER); // Default role
         }
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        volunteerRecommender.refresh(savedUser);
+        collectionVersions.bump(CollectionVersions.Collection.USERS);
+        return savedUser;
     }
     
     public Optional<User> findByUsername(String username) {
@@ -58,32 +69,45 @@ public class UserService {
         return userRepository.findById(id);
     }
     
-    public List<User> findAllUsers() {
-        return userRepository.findAll();
+    // Cursor-backed stream; the caller must consume it inside a transaction
+    public Stream<UserSummary> streamAllUsers() {
+        return userRepository.streamAllSummaries();
     }
     
-    public List<User> findUsersByRole(Role role) {
-        return userRepository.findByRole(role);
+    public List<UserSummary> findUsersByRole(Role role) {
+        return userRepository.findSummariesByRole(role);
     }
     
-    public List<User> findVolunteers() {
-        return userRepository.findByRole(Role.VOLUNTEER);
+    public List<UserSummary> findVolunteers() {
+        return userRepository.findSummariesByRole(Role.VOLUNTEER);
     }
     
-    public List<User> findVolunteersBySearch(String search) {
+    public List<UserSummary> findVolunteersBySearch(String search) {
         return userRepository.findVolunteersBySearch(Role.VOLUNTEER, search);
     }
     
-    public List<User> findUsersByName(String name) {
+    public List<UserSummary> findUsersByName(String name) {
         return userRepository.findByNameContaining(name);
     }
     
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        volunteerRecommender.refresh(savedUser);
+        collectionVersions.bump(CollectionVersions.Collection.USERS);
+        return savedUser;
     }
     
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        volunteerRecommender.remove(id);
+        collectionVersions.bump(CollectionVersions.Collection.USERS);
+    }
+    
+    // Last known position of a volunteer, used to recommend them for nearby requests
+    public void updateVolunteerLocation(Long userId, double latitude, double longitude) {
+        if (!volunteerRecommender.updatePosition(userId, latitude, longitude)) {
+            throw new RuntimeException("Only volunteers can report a location");
+        }
     }
     
     public boolean existsByUsername(String username) {
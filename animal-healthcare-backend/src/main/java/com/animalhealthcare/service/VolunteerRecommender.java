@@ -0,0 +1,159 @@
+package com.animalhealthcare.service;
+
+import com.animalhealthcare.dto.VolunteerCandidate;
+import com.animalhealthcare.entity.EmergencyRequest;
+import com.animalhealthcare.entity.Role;
+import com.animalhealthcare.entity.Status;
+import com.animalhealthcare.entity.User;
+import com.animalhealthcare.repository.EmergencyRequestRepository;
+import com.animalhealthcare.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+// Ranks volunteers for a request from an in-memory model of every volunteer's active assignment
+// count and last reported position. Ranking is a single pass over the volunteers with a bounded
+// heap, so candidates come back without touching the database.
+@Component
+public class VolunteerRecommender implements ApplicationRunner {
+
+    private static final Logger logger = Logger.getLogger(VolunteerRecommender.class.getName());
+
+    // Requests in these states keep their volunteer busy
+    static final Set<Status> ACTIVE_STATUSES = EnumSet.of(Status.ACCEPTED, Status.IN_PROGRESS);
+
+    // Each active assignment weighs as much as this many extra kilometres of travel
+    private static final double LOAD_PENALTY_KM = 5.0;
+
+    // Volunteers with no recent position rank as if they were this far away
+    private static final double UNKNOWN_DISTANCE_KM = 50.0;
+
+    private static final long POSITION_MAX_AGE_NANOS = Duration.ofHours(12).toNanos();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmergencyRequestRepository emergencyRequestRepository;
+
+    private final ConcurrentHashMap<Long, Volunteer> volunteers = new ConcurrentHashMap<>();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        userRepository.findByRole(Role.VOLUNTEER).forEach(this::refresh);
+        for (Object[] row : emergencyRequestRepository.countGroupedByVolunteer(ACTIVE_STATUSES)) {
+            Volunteer volunteer = volunteers.get((Long) row[0]);
+            if (volunteer != null) {
+                volunteer.active.set(((Long) row[1]).intValue());
+            }
+        }
+        logger.info("Volunteer recommender loaded " + volunteers.size() + " volunteers");
+    }
+
+    // Track a user after registration or profile/role changes; non-volunteers are dropped
+    public void refresh(User user) {
+        if (user.getRole() != Role.VOLUNTEER) {
+            volunteers.remove(user.getId());
+            return;
+        }
+        Volunteer volunteer = volunteers.computeIfAbsent(user.getId(), Volunteer::new);
+        volunteer.name = user.getFullName();
+        volunteer.phone = user.getPhone();
+    }
+
+    public void remove(Long userId) {
+        volunteers.remove(userId);
+    }
+
+    public boolean updatePosition(Long userId, double latitude, double longitude) {
+        Volunteer volunteer = volunteers.get(userId);
+        if (volunteer == null) {
+            return false;
+        }
+        volunteer.position = new Position(latitude, longitude, System.nanoTime());
+        return true;
+    }
+
+    // Keep active assignment counts in step with request changes
+    public void recordChange(EmergencyRequestState previous, EmergencyRequest request) {
+        Long before = previous != null && ACTIVE_STATUSES.contains(previous.status()) ? previous.volunteerId() : null;
+        Long after = request != null && ACTIVE_STATUSES.contains(request.getStatus()) ? request.getVolunteerId() : null;
+        if (before != null && before.equals(after)) {
+            return;
+        }
+        adjustActive(before, -1);
+        adjustActive(after, 1);
+    }
+
+    // Best k volunteers, lowest score first: distance plus a penalty per active assignment
+    public List<VolunteerCandidate> topCandidates(EmergencyRequest request, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+        boolean located = request.getLatitude() != null && request.getLongitude() != null;
+        long now = System.nanoTime();
+
+        // Max-heap of the best k so far; the worst of them is evicted first
+        PriorityQueue<VolunteerCandidate> best = new PriorityQueue<>(k + 1,
+                Comparator.comparingDouble(VolunteerCandidate::getScore).reversed());
+        for (Volunteer volunteer : volunteers.values()) {
+            Position position = volunteer.position;
+            Double distanceKm = null;
+            if (located && position != null && now - position.reportedAt() < POSITION_MAX_AGE_NANOS) {
+                distanceKm = EmergencyGeoIndex.distanceKm(request.getLatitude(), request.getLongitude(),
+                        position.latitude(), position.longitude());
+            }
+            int active = volunteer.active.get();
+            double score = (distanceKm != null ? distanceKm : located ? UNKNOWN_DISTANCE_KM : 0)
+                    + LOAD_PENALTY_KM * active;
+
+            if (best.size() < k) {
+                best.add(new VolunteerCandidate(volunteer.id, volunteer.name, volunteer.phone, distanceKm, active, score));
+            } else if (score < best.peek().getScore()) {
+                best.poll();
+                best.add(new VolunteerCandidate(volunteer.id, volunteer.name, volunteer.phone, distanceKm, active, score));
+            }
+        }
+
+        List<VolunteerCandidate> ranked = new ArrayList<>(best);
+        ranked.sort(Comparator.comparingDouble(VolunteerCandidate::getScore));
+        return ranked;
+    }
+
+    private void adjustActive(Long volunteerId, int delta) {
+        if (volunteerId == null) {
+            return;
+        }
+        Volunteer volunteer = volunteers.get(volunteerId);
+        if (volunteer != null) {
+            volunteer.active.updateAndGet(count -> Math.max(0, count + delta));
+        }
+    }
+
+    private static final class Volunteer {
+
+        private final Long id;
+        private final AtomicInteger active = new AtomicInteger();
+        private volatile String name;
+        private volatile String phone;
+        private volatile Position position;
+
+        private Volunteer(Long id) {
+            this.id = id;
+        }
+    }
+
+    private record Position(double latitude, double longitude, long reportedAt) {}
+}
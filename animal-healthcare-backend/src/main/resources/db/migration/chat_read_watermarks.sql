@@ -0,0 +1,15 @@
+-- Read state moved from the per-message is_read flag to one watermark per participant
+-- (chat_participants.last_read_message_id). Nothing writes is_read any more, so without this
+-- every message read under the old scheme would count as unread again. is_read was set on the
+-- other party's messages when a room member read them, so each member of a room (its owner and
+-- its volunteer) starts at the newest message from someone else that was marked read.
+-- Run once when upgrading; it is safe to repeat, since the watermark only moves forward.
+
+INSERT INTO chat_participants (chat_room_id, user_id, role, joined_at, is_active, last_read_message_id)
+SELECT r.id, u.id, u.role, NOW(), TRUE, MAX(m.id)
+FROM chat_rooms r
+JOIN users u ON u.id = r.user_id OR u.id = r.volunteer_id
+JOIN chat_messages m ON m.chat_room_id = r.id AND m.sender_id <> u.id AND m.is_read = TRUE
+GROUP BY r.id, u.id, u.role
+ON DUPLICATE KEY UPDATE last_read_message_id =
+    GREATEST(COALESCE(last_read_message_id, 0), VALUES(last_read_message_id));
@@ -35,11 +35,12 @@ CREATE TABLE IF NOT EXISTS chat_messages (
     FOREIGN KEY (chat_room_id) REFERENCES chat_rooms(id) ON DELETE CASCADE,
     FOREIGN KEY (sender_id) REFERENCES users(id) ON DELETE CASCADE,
     INDEX idx_chat_room_created (chat_room_id, created_at),
+    INDEX idx_chat_room_message (chat_room_id, id),
     INDEX idx_sender (sender_id),
     INDEX idx_unread (chat_room_id, is_read)
 );
 
--- Chat room participants (for group chats if needed later)
+-- Chat room participants; last_read_message_id is the participant's read watermark
 CREATE TABLE IF NOT EXISTS chat_participants (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
     chat_room_id BIGINT NOT NULL,
@@ -48,6 +49,7 @@ CREATE TABLE IF NOT EXISTS chat_participants (
     joined_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     left_at TIMESTAMP NULL,
     is_active BOOLEAN DEFAULT TRUE,
+    last_read_message_id BIGINT NULL,
     
     FOREIGN KEY (chat_room_id) REFERENCES chat_rooms(id) ON DELETE CASCADE,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
@@ -0,0 +1,30 @@
+-- Cold storage for completed emergency requests
+-- The application runs this file on startup and moves COMPLETED requests older than
+-- app.archive.after-days into the table in small batches; GET /emergency/{id} still finds them.
+-- The column list must match emergency_requests: when a column is added to the entity, add it here
+-- and ship an ALTER for existing archives. The archiver compares both tables on startup and stays
+-- off while they differ.
+
+CREATE TABLE IF NOT EXISTS emergency_requests_archive (
+    id VARCHAR(255) NOT NULL,
+    user_id BIGINT NULL,
+    animal_type VARCHAR(255) NOT NULL,
+    urgency ENUM('CRITICAL', 'HIGH', 'MEDIUM', 'LOW') NULL,
+    location VARCHAR(255) NOT NULL,
+    latitude DOUBLE NULL,
+    longitude DOUBLE NULL,
+    contact_name VARCHAR(255) NOT NULL,
+    contact_phone VARCHAR(255) NOT NULL,
+    contact_email VARCHAR(255) NULL,
+    description TEXT NOT NULL,
+    status ENUM('PENDING', 'ACCEPTED', 'IN_PROGRESS', 'COMPLETED') NULL,
+    volunteer_id BIGINT NULL,
+    volunteer_name VARCHAR(255) NULL,
+    volunteer_phone VARCHAR(255) NULL,
+    accepted_at DATETIME(6) NULL,
+    created_at DATETIME(6) NULL,
+    completed_at DATETIME(6) NULL,
+    completed_by VARCHAR(255) NULL,
+    duplicate_of VARCHAR(255) NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,5 @@
+-- accepted_at was added to emergency_requests after the archive table had been copied from it.
+-- Archives created before that lack the column, so the archiver dropped the acceptance time of
+-- every request it moved. Run once on such databases (the application also adds it on startup).
+
+ALTER TABLE emergency_requests_archive ADD COLUMN accepted_at DATETIME(6) NULL AFTER volunteer_phone;
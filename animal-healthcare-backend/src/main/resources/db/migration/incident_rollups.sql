@@ -0,0 +1,11 @@
+-- Hourly and daily incident counts for /emergency/analytics
+-- Created by the application on startup; one row per bucket and metric
+-- (created, urgency:<URGENCY>, status:<STATUS>, animal:<type>).
+
+CREATE TABLE IF NOT EXISTS incident_rollups (
+    granularity VARCHAR(8) NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    metric VARCHAR(150) NOT NULL,
+    count BIGINT NOT NULL,
+    PRIMARY KEY (granularity, bucket_start, metric)
+);